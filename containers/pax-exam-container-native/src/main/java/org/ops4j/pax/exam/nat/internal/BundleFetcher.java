@@ -0,0 +1,271 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.ops4j.io.FileUtils;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.TestContainerException;
+import org.ops4j.pax.exam.spi.reactors.BoundedExecutor;
+
+/**
+ * Downloads bundles (like mvn: and wrap: urls) to local files concurrently, so the framework installs from those files
+ * instead of resolving one location after another. Bundles keep their original location. Local files are not copied.
+ * <p/>
+ * With a single thread (the default) nothing is fetched ahead of time and the framework resolves every location
+ * itself, exactly like before.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class BundleFetcher
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( BundleFetcher.class );
+
+    /**
+     * Number of bundles downloaded at the same time (default: 1, no fetching ahead of time).
+     */
+    public static final String THREADS = "org.ops4j.pax.exam.native.fetch.threads";
+
+    /**
+     * Number of attempts per bundle before giving up (default: 3).
+     */
+    public static final String ATTEMPTS = "org.ops4j.pax.exam.native.fetch.attempts";
+
+    private final int m_threads;
+    private final int m_attempts;
+    private final Map<String, File> m_files = new HashMap<String, File>();
+    private File m_folder;
+
+    public BundleFetcher()
+    {
+        this( Integer.getInteger( THREADS, 1 ), Integer.getInteger( ATTEMPTS, 3 ) );
+    }
+
+    /**
+     * @param threads  number of bundles downloaded at the same time.
+     * @param attempts number of attempts per bundle. Values below 1 are treated as 1.
+     */
+    public BundleFetcher( int threads, int attempts )
+    {
+        m_threads = threads;
+        m_attempts = Math.max( 1, attempts );
+    }
+
+    /**
+     * Downloads all remote locations concurrently. Returns when the slowest download is done.
+     *
+     * @param locations bundle locations.
+     *
+     * @throws TestContainerException if a bundle cannot be downloaded after all attempts.
+     */
+    public void fetch( List<String> locations )
+    {
+        if( m_threads <= 1 )
+        {
+            return;
+        }
+        final List<String> remote = new ArrayList<String>();
+        for( String location : locations )
+        {
+            if( !location.startsWith( "file:" ) && !location.startsWith( "reference:" )
+                && !m_files.containsKey( location ) && !remote.contains( location ) )
+            {
+                remote.add( location );
+            }
+        }
+        if( remote.isEmpty() )
+        {
+            return;
+        }
+        final File folder = folder();
+        List<Callable<File>> tasks = new ArrayList<Callable<File>>();
+        for( int i = 0; i < remote.size(); i++ )
+        {
+            final String location = remote.get( i );
+            final File target = new File( folder, m_files.size() + i + ".jar" );
+            tasks.add( new Callable<File>()
+            {
+                public File call()
+                    throws Exception
+                {
+                    download( location, target );
+                    return target;
+                }
+            }
+            );
+        }
+
+        BoundedExecutor executor = new BoundedExecutor( Math.min( m_threads, remote.size() ), "pax-exam-fetch" );
+        long start = System.currentTimeMillis();
+        try
+        {
+            List<File> files = executor.invokeAll( tasks );
+            for( int i = 0; i < remote.size(); i++ )
+            {
+                m_files.put( remote.get( i ), files.get( i ) );
+            }
+        } catch( TestContainerException e )
+        {
+            throw e;
+        } catch( Exception e )
+        {
+            throw new TestContainerException( "Fetching bundles failed", e );
+        } finally
+        {
+            executor.shutdown();
+        }
+        LOG.info( "Fetched " + remote.size() + " bundle(s) on " + executor.getThreads() + " thread(s) in "
+                  + ( System.currentTimeMillis() - start ) + " ms"
+        );
+    }
+
+    /**
+     * Installs a bundle from its fetched file, or from its location if it has not been fetched.
+     */
+    public Bundle install( BundleContext context, String location )
+        throws BundleException
+    {
+        InputStream in = open( location );
+        return in == null ? context.installBundle( location ) : context.installBundle( location, in );
+    }
+
+    /**
+     * Updates a bundle from its fetched file, or from its location if it has not been fetched.
+     */
+    public void update( Bundle bundle )
+        throws BundleException
+    {
+        InputStream in = open( bundle.getLocation() );
+        if( in == null )
+        {
+            bundle.update();
+        }
+        else
+        {
+            bundle.update( in );
+        }
+    }
+
+    /**
+     * Deletes fetched files. To be called once bundles are installed.
+     */
+    public void cleanup()
+    {
+        if( m_folder != null )
+        {
+            FileUtils.delete( m_folder );
+            m_folder = null;
+        }
+        m_files.clear();
+    }
+
+    private InputStream open( String location )
+        throws BundleException
+    {
+        File file = m_files.get( location );
+        if( file == null )
+        {
+            return null;
+        }
+        try
+        {
+            // the framework closes the stream
+            return new FileInputStream( file );
+        } catch( FileNotFoundException e )
+        {
+            throw new BundleException( "Fetched file of " + location + " is gone", e );
+        }
+    }
+
+    private File folder()
+    {
+        if( m_folder == null )
+        {
+            try
+            {
+                File folder = File.createTempFile( "pax-exam-fetch", "" );
+                folder.delete();
+                if( !folder.mkdirs() )
+                {
+                    throw new IOException( "Cannot create " + folder );
+                }
+                m_folder = folder;
+            } catch( IOException e )
+            {
+                throw new TestContainerException( "Cannot create a folder for fetched bundles", e );
+            }
+        }
+        return m_folder;
+    }
+
+    private void download( String location, File target )
+        throws IOException, InterruptedException
+    {
+        for( int attempt = 1; ; attempt++ )
+        {
+            try
+            {
+                InputStream in = new URL( location ).openStream();
+                try
+                {
+                    OutputStream out = new FileOutputStream( target );
+                    try
+                    {
+                        StreamUtils.copyStream( in, out, false );
+                    } finally
+                    {
+                        out.close();
+                    }
+                } finally
+                {
+                    in.close();
+                }
+                return;
+            } catch( IOException e )
+            {
+                if( attempt >= m_attempts )
+                {
+                    IOException failure = new IOException( "Cannot fetch " + location + " after " + attempt + " attempt(s): " + e.getMessage() );
+                    failure.initCause( e );
+                    throw failure;
+                }
+                LOG.debug( "Fetching " + location + " failed (" + e.getMessage() + "), retrying" );
+                Thread.sleep( 500L * attempt );
+            }
+        }
+    }
+}
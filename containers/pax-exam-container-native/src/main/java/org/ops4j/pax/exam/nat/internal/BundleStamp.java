@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+
+/**
+ * Cheap identity of the artifact behind a bundle location, to tell whether it changed since it was installed. Nothing
+ * is downloaded to compute it.
+ * <ul>
+ * <li>local files: last modified time and size.</li>
+ * <li>SNAPSHOT artifacts: the file in the local maven repository for mvn: urls, the last modified header for http
+ * urls.</li>
+ * <li>other remote artifacts are released and never change, so their location is all there is.</li>
+ * </ul>
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+class BundleStamp
+{
+
+    private BundleStamp()
+    {
+    }
+
+    /**
+     * @param location bundle location.
+     *
+     * @return stamp of location or null if it cannot be told cheaply whether the artifact has changed.
+     */
+    static String of( String location )
+    {
+        String path = location;
+        if( path.startsWith( "reference:" ) )
+        {
+            path = path.substring( "reference:".length() );
+        }
+        if( path.startsWith( "wrap:" ) )
+        {
+            // wrap:<url>$<instructions>
+            path = path.substring( "wrap:".length() );
+            int instructions = path.indexOf( '$' );
+            if( instructions >= 0 )
+            {
+                path = path.substring( 0, instructions );
+            }
+        }
+        if( path.startsWith( "file:" ) )
+        {
+            try
+            {
+                return stamp( new File( new URI( path ) ) );
+            } catch( Exception e )
+            {
+                return null;
+            }
+        }
+        if( !path.contains( "SNAPSHOT" ) )
+        {
+            return "";
+        }
+        if( path.startsWith( "mvn:" ) )
+        {
+            return stamp( localRepositoryFile( path ) );
+        }
+        if( path.startsWith( "http:" ) || path.startsWith( "https:" ) )
+        {
+            return lastModifiedHeader( path );
+        }
+        return null;
+    }
+
+    private static String stamp( File file )
+    {
+        if( file == null || !file.isFile() )
+        {
+            return null;
+        }
+        return file.lastModified() + ":" + file.length();
+    }
+
+    /**
+     * @param url mvn:[repository!]groupId/artifactId/version[/type[/classifier]]
+     *
+     * @return the artifact in the local repository (that does not need to exist) or null if url cannot be parsed.
+     */
+    private static File localRepositoryFile( String url )
+    {
+        String coordinates = url.substring( "mvn:".length() );
+        int repository = coordinates.indexOf( '!' );
+        if( repository >= 0 )
+        {
+            coordinates = coordinates.substring( repository + 1 );
+        }
+        String[] segments = coordinates.split( "/" );
+        if( segments.length < 3 )
+        {
+            return null;
+        }
+        String type = segments.length > 3 && segments[ 3 ].length() > 0 ? segments[ 3 ] : "jar";
+        String classifier = segments.length > 4 && segments[ 4 ].length() > 0 ? "-" + segments[ 4 ] : "";
+        String local = System.getProperty(
+            "org.ops4j.pax.url.mvn.localRepository",
+            System.getProperty( "user.home" ) + File.separator + ".m2" + File.separator + "repository"
+        );
+        File folder = new File( local, segments[ 0 ].replace( '.', File.separatorChar ) );
+        folder = new File( new File( folder, segments[ 1 ] ), segments[ 2 ] );
+        return new File( folder, segments[ 1 ] + "-" + segments[ 2 ] + classifier + "." + type );
+    }
+
+    private static String lastModifiedHeader( String url )
+    {
+        try
+        {
+            HttpURLConnection connection = (HttpURLConnection) new URL( url ).openConnection();
+            try
+            {
+                connection.setRequestMethod( "HEAD" );
+                long lastModified = connection.getLastModified();
+                return lastModified > 0 ? Long.toString( lastModified ) : null;
+            } finally
+            {
+                connection.disconnect();
+            }
+        } catch( IOException e )
+        {
+            return null;
+        } catch( ClassCastException e )
+        {
+            return null;
+        }
+    }
+}
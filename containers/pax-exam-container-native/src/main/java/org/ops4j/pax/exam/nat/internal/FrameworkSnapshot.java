@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.ops4j.io.FileUtils;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.spi.probesupport.ContentDigest;
+
+/**
+ * Image of a framework storage area right after the base provisioning has been installed and started.
+ * Containers with the same provisioning start from a copy of the image instead of installing every bundle again.
+ * <p/>
+ * Images are keyed by a digest of the framework, the bundle locations and, for local files, their content. Remote
+ * artifacts add their {@link BundleStamp}. If that is unknown (like for a remote SNAPSHOT that has not been downloaded
+ * yet), the provisioning cannot be snapshotted.
+ * <p/>
+ * At most {@link #MAX} images are kept, the least recently used ones are deleted first.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class FrameworkSnapshot
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( FrameworkSnapshot.class );
+
+    /**
+     * Enables snapshots (default: false).
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.native.snapshot";
+
+    /**
+     * Folder to keep images in (default: pax-exam-snapshots in java.io.tmpdir).
+     */
+    public static final String DIR = "org.ops4j.pax.exam.native.snapshot.dir";
+
+    /**
+     * Maximum number of images kept in {@link #DIR} (default: 8).
+     */
+    public static final String MAX = "org.ops4j.pax.exam.native.snapshot.max";
+
+    private static final String COMPLETE = ".complete";
+
+    private final List<String> m_bundles;
+    private final File m_image;
+    private boolean m_usable = true;
+
+    /**
+     * @param framework name of the framework implementation.
+     * @param version   version of pax exam (part of the boot configuration).
+     * @param bundles   locations of the base provisioning, in install order.
+     */
+    public FrameworkSnapshot( String framework, String version, List<String> bundles )
+    {
+        m_bundles = bundles;
+        ContentDigest digest = new ContentDigest();
+        digest.update( framework );
+        digest.update( version );
+        for( String location : bundles )
+        {
+            digest.update( location );
+            File file = localFile( location );
+            if( file != null && file.isFile() )
+            {
+                digestFile( digest, file );
+            }
+            else if( file != null && file.isDirectory() )
+            {
+                try
+                {
+                    digest.updateTree( file );
+                } catch( IOException e )
+                {
+                    digest.update( e.toString() );
+                }
+            }
+            else
+            {
+                String stamp = BundleStamp.of( location );
+                if( stamp == null )
+                {
+                    LOG.debug( "Cannot tell whether " + location + " has changed, provisioning is not snapshotted." );
+                    m_usable = false;
+                }
+                else
+                {
+                    digest.update( stamp );
+                }
+            }
+        }
+        String dir = System.getProperty( DIR, new File( System.getProperty( "java.io.tmpdir" ), "pax-exam-snapshots" ).getPath() );
+        m_image = new File( dir, digest.toHex() );
+    }
+
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean( ENABLED );
+    }
+
+    /**
+     * @return false if the provisioning contains artifacts that may have changed unnoticed.
+     */
+    public boolean isUsable()
+    {
+        return m_usable;
+    }
+
+    /**
+     * @return true if there is an image to restore from.
+     */
+    public boolean exists()
+    {
+        return m_usable && new File( m_image, COMPLETE ).exists();
+    }
+
+    /**
+     * Replaces storage with a copy of the image.
+     *
+     * @param storage framework storage area.
+     *
+     * @return false if the image could not be restored. Storage is empty then.
+     */
+    public boolean restore( File storage )
+    {
+        FileUtils.delete( storage );
+        try
+        {
+            // marks the image as recently used
+            new File( m_image, COMPLETE ).setLastModified( System.currentTimeMillis() );
+            copy( m_image, storage );
+            new File( storage, COMPLETE ).delete();
+            LOG.debug( "Restored framework storage from " + m_image );
+            return true;
+        } catch( IOException e )
+        {
+            LOG.warn( "Cannot restore framework storage from " + m_image + ": " + e.getMessage() );
+            FileUtils.delete( storage );
+            return false;
+        }
+    }
+
+    /**
+     * @param context bundle context of a framework initialized from a restored image.
+     *
+     * @return true if exactly the base provisioning is installed.
+     */
+    public boolean matches( BundleContext context )
+    {
+        Set<String> installed = new HashSet<String>();
+        for( Bundle b : context.getBundles() )
+        {
+            if( b.getBundleId() != 0 )
+            {
+                installed.add( b.getLocation() );
+            }
+        }
+        return installed.equals( new HashSet<String>( m_bundles ) );
+    }
+
+    /**
+     * Copies storage into the image. Must only be called while the framework is stopped.
+     * Concurrent captures of the same image are harmless: the first one to complete wins.
+     *
+     * @param storage framework storage area.
+     */
+    public void capture( File storage )
+    {
+        if( !m_usable || exists() )
+        {
+            return;
+        }
+        File tmp = new File( m_image.getPath() + "." + System.nanoTime() + ".tmp" );
+        try
+        {
+            copy( storage, tmp );
+            new File( tmp, COMPLETE ).createNewFile();
+            if( !tmp.renameTo( m_image ) )
+            {
+                // somebody else was faster
+                FileUtils.delete( tmp );
+            }
+            else
+            {
+                LOG.debug( "Captured framework storage to " + m_image );
+                evict( m_image.getParentFile(), Integer.getInteger( MAX, 8 ) );
+            }
+        } catch( IOException e )
+        {
+            LOG.warn( "Cannot capture framework storage to " + m_image + ": " + e.getMessage() );
+            FileUtils.delete( tmp );
+        }
+    }
+
+    /**
+     * Deletes the least recently used images beyond max.
+     */
+    static void evict( File dir, int max )
+    {
+        File[] images = dir.listFiles();
+        if( images == null )
+        {
+            return;
+        }
+        List<File> complete = new ArrayList<File>();
+        for( File image : images )
+        {
+            if( new File( image, COMPLETE ).exists() )
+            {
+                complete.add( image );
+            }
+        }
+        Collections.sort( complete, new Comparator<File>()
+        {
+            public int compare( File a, File b )
+            {
+                long used = new File( b, COMPLETE ).lastModified() - new File( a, COMPLETE ).lastModified();
+                return used > 0 ? 1 : ( used < 0 ? -1 : 0 );
+            }
+        }
+        );
+        for( File image : complete.subList( Math.min( Math.max( 0, max ), complete.size() ), complete.size() ) )
+        {
+            LOG.debug( "Evicting framework snapshot " + image );
+            // the marker goes first so nobody starts restoring a half deleted image
+            new File( image, COMPLETE ).delete();
+            FileUtils.delete( image );
+        }
+    }
+
+    private static File localFile( String location )
+    {
+        if( location.startsWith( "reference:" ) )
+        {
+            location = location.substring( "reference:".length() );
+        }
+        if( !location.startsWith( "file:" ) )
+        {
+            return null;
+        }
+        try
+        {
+            return new File( new URI( location ) );
+        } catch( Exception e )
+        {
+            return null;
+        }
+    }
+
+    private static void digestFile( ContentDigest digest, File file )
+    {
+        try
+        {
+            InputStream in = new FileInputStream( file );
+            try
+            {
+                digest.update( in );
+            } finally
+            {
+                in.close();
+            }
+        } catch( IOException e )
+        {
+            // an unreadable file must not digest like its readable content
+            digest.update( e.toString() );
+        }
+    }
+
+    private static void copy( File from, File to )
+        throws IOException
+    {
+        if( from.isDirectory() )
+        {
+            if( !to.mkdirs() && !to.isDirectory() )
+            {
+                throw new IOException( "Cannot create " + to );
+            }
+            File[] children = from.listFiles();
+            if( children == null )
+            {
+                throw new IOException( "Cannot list " + from );
+            }
+            for( File child : children )
+            {
+                copy( child, new File( to, child.getName() ) );
+            }
+        }
+        else
+        {
+            InputStream in = new FileInputStream( from );
+            try
+            {
+                OutputStream out = new FileOutputStream( to );
+                try
+                {
+                    StreamUtils.copyStream( in, out, false );
+                } finally
+                {
+                    out.close();
+                }
+            } finally
+            {
+                in.close();
+            }
+            to.setLastModified( from.lastModified() );
+        }
+    }
+}
@@ -23,9 +23,17 @@ import org.ops4j.pax.exam.Info;
 import org.ops4j.pax.exam.TestContainer;
 import org.ops4j.pax.exam.TestContainerException;
 import org.ops4j.pax.exam.TimeoutException;
+import org.ops4j.pax.exam.spi.InProcessTestTarget;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleException;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.launch.Framework;
 import org.osgi.framework.launch.FrameworkFactory;
@@ -40,7 +48,7 @@ import java.util.*;
  * @author Toni Menzel
  * @since Jan 7, 2010
  */
-public class NativeTestContainer implements TestContainer
+public class NativeTestContainer implements TestContainer, InProcessTestTarget
 {
 
     private static Logger LOG = LoggerFactory.getLogger( NativeTestContainer.class );
@@ -48,41 +56,98 @@ public class NativeTestContainer implements TestContainer
 
     private Framework m_framework;
     private Stack<Long> m_installed;
+    private StorageLease m_storage;
+    private PersistentStorage m_persistent;
+    final private String m_fingerprint;
 
     public NativeTestContainer( ArrayList<String> bundles )
+    {
+        this( bundles, null );
+    }
+
+    /**
+     * @param bundles     locations of the provisioning.
+     * @param fingerprint fingerprint of the configuration, used to find a {@link PersistentStorage}. May be null.
+     */
+    public NativeTestContainer( ArrayList<String> bundles, String fingerprint )
     {
         m_bundles = bundles;
+        m_fingerprint = fingerprint;
     }
 
+    /**
+     * Waits for a matching service with a service listener, so it returns as soon as the service registers and does
+     * not use any CPU while waiting. With a timeout of 0, the service registry is only checked once.
+     */
     public <T> T getService( Class<T> serviceType, String filter, long timeout )
         throws TestContainerException
     {
-        T service = null;
+        return getService( m_framework.getBundleContext(), serviceType, filter, timeout );
+    }
+
+    /**
+     * Waits for a service, like the remote containers do. A service unregistered between lookup and
+     * {@link BundleContext#getService(ServiceReference)} does not end the wait.
+     */
+    static <T> T getService( BundleContext context, Class<T> serviceType, String filter, long timeout )
+    {
         long start = System.currentTimeMillis();
 
         LOG.debug( "Aquiring Service " + serviceType.getName() + " " + ( filter != null ? filter : "" ) );
 
-        do
+        long deadline = timeout == org.ops4j.pax.exam.Constants.WAIT_FOREVER ? Long.MAX_VALUE : start + timeout;
+        ServiceWaiter waiter = new ServiceWaiter();
+        try
         {
+            // listen first, so a registration between lookup and wait is not missed
+            context.addServiceListener( waiter, "(&(" + Constants.OBJECTCLASS + "=" + serviceType.getName() + ")"
+                                                + ( filter != null ? filter : "" ) + ")"
+            );
             try
             {
-                ServiceReference[] reference = m_framework.getBundleContext().getServiceReferences( serviceType.getName(), filter );
-                if( reference != null )
+                ServiceReference[] reference = context.getServiceReferences( serviceType.getName(), filter );
+                if( reference != null && reference.length > 0 )
                 {
-
-                    for( ServiceReference ref : reference )
+                    waiter.found( reference[ 0 ] );
+                }
+                ServiceReference found;
+                while( ( found = waiter.await( deadline ) ) != null )
+                {
+                    T service = (T) context.getService( found );
+                    if( service != null )
+                    {
+                        LOG.debug( "Aquired Service " + serviceType.getName() + " after "
+                                   + ( System.currentTimeMillis() - start ) + " ms"
+                        );
+                        return service;
+                    }
+                    if( System.currentTimeMillis() >= deadline )
+                    {
+                        break;
+                    }
+                    // unregistered since it has been found, take another one or wait for the next registration
+                    waiter.reset();
+                    reference = context.getServiceReferences( serviceType.getName(), filter );
+                    if( reference != null && reference.length > 0 && !reference[ 0 ].equals( found ) )
                     {
-                        return ( (T) m_framework.getBundleContext().getService( ref ) );
+                        waiter.found( reference[ 0 ] );
                     }
                 }
-
-            } catch( Exception e )
+            } finally
             {
-                LOG.error( "Some problem during looking up service. " + e );
+                context.removeServiceListener( waiter );
             }
-        } while( ( System.currentTimeMillis() ) < start + timeout );
+        } catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        } catch( Exception e )
+        {
+            LOG.error( "Some problem during looking up service. " + e );
+        }
 
-        LOG.debug( "Not found a matching Service " + serviceType.getName() + " for Filter:" + ( filter != null ? filter : "" ) );
+        LOG.debug( "Not found a matching Service " + serviceType.getName() + " for Filter:" + ( filter != null ? filter : "" )
+                   + " after " + ( System.currentTimeMillis() - start ) + " ms"
+        );
 
         return null;
     }
@@ -110,6 +175,40 @@ public class NativeTestContainer implements TestContainer
         return -1;
     }
 
+    /**
+     * Installs folder by reference so the framework reads its content in place.
+     * As locations have to be unique, a folder can only be installed once at a time.
+     */
+    public long install( File folder )
+    {
+        String location = "reference:" + folder.toURI().toString();
+        for( Bundle existing : m_framework.getBundleContext().getBundles() )
+        {
+            if( location.equals( existing.getLocation() ) )
+            {
+                LOG.debug( "Location " + location + " is already installed as Bundle ID " + existing.getBundleId() );
+                return -1;
+            }
+        }
+        try
+        {
+            if( m_installed == null )
+            {
+                m_installed = new Stack<Long>();
+            }
+            Bundle b = m_framework.getBundleContext().installBundle( location );
+            m_installed.push( b.getBundleId() );
+            LOG.debug( "Installed bundle " + b.getSymbolicName() + " from " + location + " as Bundle ID " + b.getBundleId() );
+
+            b.start();
+            return b.getBundleId();
+        } catch( BundleException e )
+        {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
     public void cleanup()
     {
         if( m_installed != null )
@@ -152,15 +251,21 @@ public class NativeTestContainer implements TestContainer
             {
                 LOG.debug( "Framework goes down.." );
                 m_framework.stop();
-                m_framework.waitForStop( 1000 );
-
-
+                FrameworkEvent event = m_framework.waitForStop( 1000 );
+                if( event.getType() == FrameworkEvent.WAIT_TIMEDOUT )
+                {
+                    LOG.warn( "Framework did not stop in time, releasing its storage anyway" );
+                }
             } catch( BundleException e )
             {
-                e.printStackTrace();
+                throw new TestContainerException( "Stopping the native container failed", e );
             } catch( InterruptedException e )
             {
-
+                Thread.currentThread().interrupt();
+            } finally
+            {
+                // a container abandoned by the stopper must not keep its lock or storage
+                releaseStorage();
             }
         }
         else
@@ -173,7 +278,78 @@ public class NativeTestContainer implements TestContainer
     public void waitForState( long bundleId, int state, long timeoutInMillis )
         throws TimeoutException
     {
-        // look for a certain state in fw
+        waitForState( new long[]{ bundleId }, state, timeoutInMillis );
+    }
+
+    /**
+     * Waits for several bundles to be at least in a certain state, like the remote containers do. Bundle and framework
+     * events wake up the waiting thread, so it returns as soon as the last bundle gets there.
+     *
+     * @param bundleIds       bundle ids
+     * @param state           minimum expected state
+     * @param timeoutInMillis max time to wait for all bundles ({@link org.ops4j.pax.exam.Constants#NO_WAIT} checks only once)
+     *
+     * @throws TimeoutException - if timeout occured and not all bundles are in the expected state
+     */
+    public void waitForState( long[] bundleIds, int state, long timeoutInMillis )
+        throws TimeoutException
+    {
+        waitForState( m_framework.getBundleContext(), bundleIds, state, timeoutInMillis );
+    }
+
+    static void waitForState( BundleContext context, long[] bundleIds, int state, long timeoutInMillis )
+        throws TimeoutException
+    {
+        long start = System.currentTimeMillis();
+        boolean forever = timeoutInMillis == org.ops4j.pax.exam.Constants.WAIT_FOREVER;
+        StateWaiter waiter = new StateWaiter();
+        context.addBundleListener( waiter );
+        context.addFrameworkListener( waiter );
+        try
+        {
+            synchronized( waiter )
+            {
+                List<Long> pending = pending( context, bundleIds, state );
+                while( !pending.isEmpty() )
+                {
+                    long remaining = forever ? 0 : start + timeoutInMillis - System.currentTimeMillis();
+                    if( !forever && remaining <= 0 )
+                    {
+                        throw new TimeoutException( "Bundles " + pending + " did not reach state " + state + " within "
+                                                    + timeoutInMillis + " millis"
+                        );
+                    }
+                    waiter.wait( remaining );
+                    pending = pending( context, bundleIds, state );
+                }
+            }
+            LOG.debug( "Bundles " + Arrays.toString( bundleIds ) + " reached state " + state + " after "
+                       + ( System.currentTimeMillis() - start ) + " ms"
+            );
+        } catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException( "Interrupted while waiting for bundle state", e );
+        } finally
+        {
+            context.removeFrameworkListener( waiter );
+            context.removeBundleListener( waiter );
+        }
+    }
+
+    private static List<Long> pending( BundleContext context, long[] bundleIds, int state )
+    {
+        List<Long> pending = new ArrayList<Long>();
+        for( long id : bundleIds )
+        {
+            Bundle bundle = context.getBundle( id );
+            int current = bundle == null ? Bundle.UNINSTALLED : bundle.getState();
+            if( current < state )
+            {
+                pending.add( id );
+            }
+        }
+        return pending;
     }
 
     public TestContainer start()
@@ -183,43 +359,123 @@ public class NativeTestContainer implements TestContainer
         try
         {
             final Map<String, String> p = new HashMap<String, String>();
-            String folder = System.getProperty( "user.home" ) + File.separator + "osgi";
+            // TODO fix ContextClassLoaderUtils.doWithClassLoader() and replace logic with it.
+            parent = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader( null );
+
+            FrameworkFactory factory = (FrameworkFactory) DiscoverSingleton.find( FrameworkFactory.class );
+
+            if( PersistentStorage.isEnabled() && m_fingerprint != null )
+            {
+                m_persistent = PersistentStorage.lock( factory.getClass().getName(), Info.getPaxExamVersion(), m_fingerprint );
+            }
+            if( m_persistent == null )
+            {
+                m_storage = StorageLease.acquire();
+            }
+            String folder = folder().getPath();
             LOG.debug( "Cache folder set to " + folder );
-            FileUtils.delete( new File( folder ) );
             // load default stuff
 
             p.put( "org.osgi.framework.storage", folder );
             //  System.setProperty( "org.osgi.vendor.framework", "org.ops4j.pax.exam" );
 
             p.put( "org.osgi.framework.system.packages.extra", "org.ops4j.pax.exam.raw.extender;version=" + skipSnapshotFlag( Info.getPaxExamVersion() ) );
-            // TODO fix ContextClassLoaderUtils.doWithClassLoader() and replace logic with it.
-            parent = Thread.currentThread().getContextClassLoader();
-            Thread.currentThread().setContextClassLoader( null );
 
-            FrameworkFactory factory = (FrameworkFactory) DiscoverSingleton.find( FrameworkFactory.class );
+            FrameworkSnapshot snapshot = null;
+            boolean restored = false;
+            if( m_persistent != null )
+            {
+                BundleFetcher fetcher = new BundleFetcher();
+                m_framework = factory.newFramework( p );
+                m_framework.init();
+                try
+                {
+                    m_persistent.sync( m_framework.getBundleContext(), m_bundles, fetcher );
+                } catch( Exception e )
+                {
+                    LOG.warn( "Persistent storage is unusable, booting from scratch: " + e.getMessage() );
+                    m_framework.stop();
+                    m_framework.waitForStop( 0 );
+                    m_persistent.reset();
+                    m_framework = factory.newFramework( p );
+                    m_framework.init();
+                    m_persistent.sync( m_framework.getBundleContext(), m_bundles, fetcher );
+                } finally
+                {
+                    fetcher.cleanup();
+                }
+                m_framework.start();
+                startBundles();
+                return this;
+            }
+            if( FrameworkSnapshot.isEnabled() )
+            {
+                snapshot = new FrameworkSnapshot( factory.getClass().getName(), Info.getPaxExamVersion(), m_bundles );
+                if( snapshot.isUsable() )
+                {
+                    restored = snapshot.exists() && snapshot.restore( new File( folder ) );
+                }
+                else
+                {
+                    snapshot = null;
+                }
+            }
 
             m_framework = factory.newFramework( p );
 
             m_framework.init();
 
             BundleContext context = m_framework.getBundleContext();
-            for( String bundle : m_bundles )
+            if( restored && !snapshot.matches( context ) )
             {
-                Bundle b = context.installBundle( bundle );
-                LOG.debug( "Installed bundle " + b.getSymbolicName() + " as Bundle ID " + b.getBundleId() );
+                LOG.warn( "Framework snapshot does not match provisioning, booting from scratch." );
+                m_framework.stop();
+                m_framework.waitForStop( 0 );
+                FileUtils.delete( new File( folder ) );
+                m_framework = factory.newFramework( p );
+                m_framework.init();
+                context = m_framework.getBundleContext();
+                restored = false;
+            }
+            if( !restored )
+            {
+                BundleFetcher fetcher = new BundleFetcher();
+                try
+                {
+                    fetcher.fetch( m_bundles );
+                    for( String bundle : m_bundles )
+                    {
+                        Bundle b = fetcher.install( context, bundle );
+                        LOG.debug( "Installed bundle " + b.getSymbolicName() + " as Bundle ID " + b.getBundleId() );
 
+                    }
+                } finally
+                {
+                    fetcher.cleanup();
+                }
             }
             m_framework.start();
-            for( Bundle b : m_framework.getBundleContext().getBundles() )
+            startBundles();
+            if( snapshot != null && !restored )
             {
-                b.start();
-                LOG.debug( "Started: " + b.getSymbolicName() );
+                // capture the storage of the provisioned framework while it is at rest
+                m_framework.stop();
+                m_framework.waitForStop( 0 );
+                snapshot.capture( new File( folder ) );
+                m_framework.start();
+                startBundles();
             }
             Thread.currentThread().setContextClassLoader( parent );
 
         } catch( Exception e )
         {
-            e.printStackTrace();
+            abort();
+            if( e instanceof TestContainerException )
+            {
+                throw (TestContainerException) e;
+            }
+            throw new TestContainerException( "Starting the native container failed", e );
         } finally
         {
             if( parent != null )
@@ -231,6 +487,55 @@ public class NativeTestContainer implements TestContainer
         return this;
     }
 
+    /**
+     * Stops a partially started framework and releases its storage.
+     */
+    private void abort()
+    {
+        if( m_framework != null )
+        {
+            try
+            {
+                m_framework.stop();
+                m_framework.waitForStop( 1000 );
+            } catch( Exception e )
+            {
+                LOG.warn( "Cannot stop framework after failed start: " + e.getMessage() );
+            }
+            m_framework = null;
+        }
+        releaseStorage();
+    }
+
+    private void releaseStorage()
+    {
+        if( m_persistent != null )
+        {
+            m_persistent.unlock();
+            m_persistent = null;
+        }
+        if( m_storage != null )
+        {
+            m_storage.release();
+            m_storage = null;
+        }
+    }
+
+    private File folder()
+    {
+        return m_persistent != null ? m_persistent.getStorage() : m_storage.getFolder();
+    }
+
+    private void startBundles()
+        throws BundleException
+    {
+        for( Bundle b : m_framework.getBundleContext().getBundles() )
+        {
+            b.start();
+            LOG.debug( "Started: " + b.getSymbolicName() );
+        }
+    }
+
     private String skipSnapshotFlag( String version )
     {
         int idx = version.indexOf( "-" );
@@ -261,5 +566,66 @@ public class NativeTestContainer implements TestContainer
         return "org.eclipse.osgi.launch.EquinoxFactory";
     }
 
+    /**
+     * Wakes up a waiting thread when a matching service registers.
+     */
+    private static class ServiceWaiter implements ServiceListener
+    {
+
+        private ServiceReference m_found;
 
+        public void serviceChanged( ServiceEvent event )
+        {
+            if( event.getType() == ServiceEvent.REGISTERED || event.getType() == ServiceEvent.MODIFIED )
+            {
+                found( event.getServiceReference() );
+            }
+        }
+
+        synchronized void found( ServiceReference reference )
+        {
+            if( m_found == null )
+            {
+                m_found = reference;
+                notifyAll();
+            }
+        }
+
+        synchronized void reset()
+        {
+            m_found = null;
+        }
+
+        /**
+         * @param deadline time in millis to give up at.
+         */
+        synchronized ServiceReference await( long deadline )
+            throws InterruptedException
+        {
+            long remaining = deadline - System.currentTimeMillis();
+            while( m_found == null && remaining > 0 )
+            {
+                wait( remaining );
+                remaining = deadline - System.currentTimeMillis();
+            }
+            return m_found;
+        }
+    }
+
+    /**
+     * Wakes up threads waiting on it whenever a bundle or the framework changes.
+     */
+    private static class StateWaiter implements BundleListener, FrameworkListener
+    {
+
+        public synchronized void bundleChanged( BundleEvent event )
+        {
+            notifyAll();
+        }
+
+        public synchronized void frameworkEvent( FrameworkEvent event )
+        {
+            notifyAll();
+        }
+    }
 }
@@ -18,8 +18,8 @@
 package org.ops4j.pax.exam.nat.internal;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionDescription;
 import org.ops4j.pax.exam.TestContainer;
@@ -37,7 +37,7 @@ import org.ops4j.pax.exam.TestContainerFactory;
 public class NativeTestContainerFactory implements TestContainerFactory
 {
 
-    final private Map<OptionDescription, TestContainer> m_registry = new HashMap<OptionDescription, TestContainer>();
+    final private Map<OptionDescription, TestContainer> m_registry = new ConcurrentHashMap<OptionDescription, TestContainer>();
 
     public OptionDescription[] parse( Option... options )
     {
@@ -47,7 +47,7 @@ public class NativeTestContainerFactory implements TestContainerFactory
 
         NativeTestContainerParser parser = new NativeTestContainerParser( options );
         ArrayList<String> bundles = parser.getBundles();//new NativeTestContainerParser().get( options );
-        TestContainer container = new NativeTestContainer( bundles );
+        TestContainer container = new NativeTestContainer( bundles, parser.getFingerprint() );
         OptionDescription descr = parser.getDescription();
 
         m_registry.put( descr, container );
@@ -23,6 +23,7 @@ import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionDescription;
 import org.ops4j.pax.exam.options.ProvisionOption;
 import org.ops4j.pax.exam.spi.BuildingOptionDescription;
+import org.ops4j.pax.exam.spi.reactors.OptionFingerprint;
 
 import static org.ops4j.pax.exam.Constants.*;
 import static org.ops4j.pax.exam.CoreOptions.*;
@@ -38,6 +39,7 @@ public class NativeTestContainerParser
 
     final private ArrayList<String> m_bundles = new ArrayList<String>();
     final private BuildingOptionDescription m_desc;
+    final private String m_fingerprint;
 
     public NativeTestContainerParser( Option[] options )
     {
@@ -46,6 +48,7 @@ public class NativeTestContainerParser
         options = expand( combine( localOptions(), options ) );
         
         m_desc = new BuildingOptionDescription( options );
+        m_fingerprint = OptionFingerprint.of( options ).toString();
         ProvisionOption[] bundleOptions = filter( ProvisionOption.class, options );
         for( ProvisionOption opt : bundleOptions )
         {
@@ -59,6 +62,14 @@ public class NativeTestContainerParser
         return m_bundles;
     }
 
+    /**
+     * @return fingerprint of the (expanded) configuration.
+     */
+    public String getFingerprint()
+    {
+        return m_fingerprint;
+    }
+
     public OptionDescription getDescription()
     {
         return new OptionDescription()
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.ops4j.io.FileUtils;
+import org.ops4j.pax.exam.spi.probesupport.ContentDigest;
+
+/**
+ * Framework storage area that survives the container, one per configuration. On start, only the bundles that differ
+ * from the last run are installed, updated or uninstalled. An unchanged configuration boots straight from the bundle
+ * cache.
+ * <p/>
+ * A bundle counts as changed when its {@link BundleStamp} differs from the last run or cannot be computed.
+ * <p/>
+ * An area is used by one container at a time, guarded by a file lock (also across JVMs).
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class PersistentStorage
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( PersistentStorage.class );
+
+    /**
+     * Enables persistent storage areas (default: false).
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.native.persistent";
+
+    /**
+     * Folder to keep storage areas in (default: pax-exam-persistent in java.io.tmpdir).
+     */
+    public static final String DIR = "org.ops4j.pax.exam.native.persistent.dir";
+
+    private static final String STAMPS = "bundles.properties";
+
+    private final File m_folder;
+    private final RandomAccessFile m_lockFile;
+    private final FileLock m_lock;
+
+    private PersistentStorage( File folder, RandomAccessFile lockFile, FileLock lock )
+    {
+        m_folder = folder;
+        m_lockFile = lockFile;
+        m_lock = lock;
+    }
+
+    public static boolean isEnabled()
+    {
+        return Boolean.getBoolean( ENABLED );
+    }
+
+    /**
+     * @param framework   name of the framework implementation.
+     * @param version     version of pax exam.
+     * @param fingerprint fingerprint of the configuration.
+     *
+     * @return the locked storage area of this configuration or null if it is in use or cannot be locked.
+     */
+    public static PersistentStorage lock( String framework, String version, String fingerprint )
+    {
+        ContentDigest digest = new ContentDigest();
+        digest.update( framework );
+        digest.update( version );
+        digest.update( fingerprint );
+        String dir = System.getProperty( DIR, new File( System.getProperty( "java.io.tmpdir" ), "pax-exam-persistent" ).getPath() );
+        File folder = new File( dir, digest.toHex() );
+        if( !folder.mkdirs() && !folder.isDirectory() )
+        {
+            LOG.warn( "Cannot create persistent storage " + folder );
+            return null;
+        }
+        RandomAccessFile lockFile = null;
+        try
+        {
+            lockFile = new RandomAccessFile( new File( folder, ".lock" ), "rw" );
+            FileLock lock = lockFile.getChannel().tryLock();
+            if( lock != null )
+            {
+                return new PersistentStorage( folder, lockFile, lock );
+            }
+        } catch( OverlappingFileLockException e )
+        {
+            // locked by another container in this JVM
+        } catch( IOException e )
+        {
+            LOG.warn( "Cannot lock persistent storage " + folder + ": " + e.getMessage() );
+        }
+        closeQuietly( lockFile );
+        LOG.debug( "Persistent storage " + folder + " is in use" );
+        return null;
+    }
+
+    /**
+     * @return framework storage area.
+     */
+    public File getStorage()
+    {
+        return new File( m_folder, "storage" );
+    }
+
+    /**
+     * Brings the installed bundles in line with the provisioning. Must be called on an initialized, not yet started
+     * framework. Only bundles to be installed or updated are fetched.
+     *
+     * @param context bundle context of the system bundle.
+     * @param bundles locations of the provisioning, in install order.
+     * @param fetcher used to fetch and install bundles.
+     *
+     * @throws BundleException if a bundle cannot be installed, updated or uninstalled.
+     */
+    public void sync( BundleContext context, List<String> bundles, BundleFetcher fetcher )
+        throws BundleException
+    {
+        Properties recorded = loadStamps();
+        Properties stamps = new Properties();
+        Map<String, Bundle> installed = new HashMap<String, Bundle>();
+        for( Bundle b : context.getBundles() )
+        {
+            if( b.getBundleId() != 0 )
+            {
+                installed.put( b.getLocation(), b );
+            }
+        }
+
+        List<String> added = new ArrayList<String>();
+        List<Bundle> changed = new ArrayList<Bundle>();
+        for( String location : bundles )
+        {
+            String stamp = BundleStamp.of( location );
+            if( stamp != null )
+            {
+                stamps.setProperty( location, stamp );
+            }
+            Bundle b = installed.remove( location );
+            if( b == null )
+            {
+                added.add( location );
+            }
+            else if( stamp == null || !stamp.equals( recorded.getProperty( location ) ) )
+            {
+                // an unknown stamp may hide a change
+                changed.add( b );
+            }
+        }
+
+        List<String> needed = new ArrayList<String>( added );
+        for( Bundle b : changed )
+        {
+            needed.add( b.getLocation() );
+        }
+        fetcher.fetch( needed );
+        for( String location : added )
+        {
+            Bundle b = fetcher.install( context, location );
+            LOG.debug( "Installed bundle " + b.getSymbolicName() + " as Bundle ID " + b.getBundleId() );
+        }
+        for( Bundle b : changed )
+        {
+            fetcher.update( b );
+            LOG.debug( "Updated bundle " + b.getSymbolicName() );
+        }
+        for( Bundle b : installed.values() )
+        {
+            LOG.debug( "Uninstalling bundle " + b.getSymbolicName() );
+            b.uninstall();
+        }
+        storeStamps( stamps );
+        LOG.info( "Persistent storage " + m_folder + ": " + added.size() + " installed, " + changed.size() + " updated, "
+                  + installed.size() + " uninstalled, " + ( bundles.size() - added.size() - changed.size() ) + " reused"
+        );
+    }
+
+    /**
+     * Throws away the storage area, for example after it turned out to be corrupt.
+     */
+    public void reset()
+    {
+        FileUtils.delete( getStorage() );
+        new File( m_folder, STAMPS ).delete();
+    }
+
+    /**
+     * Lets the next container use this storage area. Must only be called after the framework has stopped.
+     */
+    public void unlock()
+    {
+        try
+        {
+            m_lock.release();
+        } catch( IOException e )
+        {
+            LOG.warn( "Cannot unlock persistent storage " + m_folder + ": " + e.getMessage() );
+        }
+        closeQuietly( m_lockFile );
+    }
+
+    private Properties loadStamps()
+    {
+        Properties stamps = new Properties();
+        File file = new File( m_folder, STAMPS );
+        if( file.exists() )
+        {
+            try
+            {
+                InputStream in = new FileInputStream( file );
+                try
+                {
+                    stamps.load( in );
+                } finally
+                {
+                    in.close();
+                }
+            } catch( IOException e )
+            {
+                // all bundles are updated then
+                LOG.warn( "Cannot read " + file + ": " + e.getMessage() );
+            }
+        }
+        return stamps;
+    }
+
+    private void storeStamps( Properties stamps )
+    {
+        File file = new File( m_folder, STAMPS );
+        try
+        {
+            OutputStream out = new FileOutputStream( file );
+            try
+            {
+                stamps.store( out, "Installed provisioning" );
+            } finally
+            {
+                out.close();
+            }
+        } catch( IOException e )
+        {
+            // all bundles are updated next time
+            LOG.warn( "Cannot write " + file + ": " + e.getMessage() );
+            file.delete();
+        }
+    }
+
+    private static void closeQuietly( RandomAccessFile file )
+    {
+        if( file != null )
+        {
+            try
+            {
+                file.close();
+            } catch( IOException e )
+            {
+                // nothing left to do
+            }
+        }
+    }
+}
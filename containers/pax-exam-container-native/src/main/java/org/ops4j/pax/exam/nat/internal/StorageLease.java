@@ -0,0 +1,176 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.io.FileUtils;
+import org.ops4j.pax.exam.TestContainerException;
+import org.ops4j.pax.exam.spi.reactors.BoundedExecutor;
+import org.ops4j.pax.exam.spi.reactors.ShutdownTasks;
+
+/**
+ * Framework storage area used by exactly one container. Every lease gets a new folder, so containers in the same JVM
+ * or in parallel JVMs never share (and delete) each others bundle cache.
+ * <p/>
+ * Released folders are deleted in the background. Folders still around when the JVM exits are deleted by a shutdown
+ * hook.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class StorageLease
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( StorageLease.class );
+
+    /**
+     * Folder to create storage areas in (default: pax-exam-storage in java.io.tmpdir). Point this to a tmpfs mount
+     * like /dev/shm to keep bundle caches in memory.
+     */
+    public static final String ROOT = "org.ops4j.pax.exam.native.storage";
+
+    private static final AtomicLong s_count = new AtomicLong();
+    private static final Set<File> s_leased = new HashSet<File>();
+    private static BoundedExecutor s_cleaner;
+    private static boolean s_hooked;
+
+    private final File m_folder;
+    private boolean m_released;
+
+    private StorageLease( File folder )
+    {
+        m_folder = folder;
+    }
+
+    /**
+     * @return a new, empty storage area.
+     *
+     * @throws TestContainerException if no folder can be created.
+     */
+    public static StorageLease acquire()
+    {
+        File root = new File(
+            System.getProperty( ROOT, new File( System.getProperty( "java.io.tmpdir" ), "pax-exam-storage" ).getPath() )
+        );
+        if( !root.mkdirs() && !root.isDirectory() )
+        {
+            throw new TestContainerException( "Cannot create storage root " + root );
+        }
+        for( int attempt = 0; attempt < 100; attempt++ )
+        {
+            // mkdir is atomic, also across JVMs sharing the root
+            File folder = new File(
+                root, Long.toString( System.currentTimeMillis(), 36 ) + "-" + s_count.incrementAndGet()
+            );
+            if( folder.mkdir() )
+            {
+                register( folder );
+                LOG.debug( "Leased framework storage " + folder );
+                return new StorageLease( folder );
+            }
+        }
+        throw new TestContainerException( "Cannot create a storage folder in " + root );
+    }
+
+    public File getFolder()
+    {
+        return m_folder;
+    }
+
+    /**
+     * Deletes the storage area in the background. Must only be called after the framework has stopped.
+     * Calling this more than once has no effect.
+     */
+    public synchronized void release()
+    {
+        if( m_released )
+        {
+            return;
+        }
+        m_released = true;
+        cleaner().submit( new Callable<Object>()
+        {
+            public Object call()
+            {
+                delete( m_folder );
+                return null;
+            }
+        }
+        );
+    }
+
+    private static synchronized BoundedExecutor cleaner()
+    {
+        if( s_cleaner == null )
+        {
+            s_cleaner = BoundedExecutor.background( 1, "pax-exam-storage-cleanup" );
+        }
+        return s_cleaner;
+    }
+
+    private static void register( File folder )
+    {
+        synchronized( s_leased )
+        {
+            if( !s_hooked )
+            {
+                s_hooked = true;
+                // after the container pool stopped its frameworks, never under a running one
+                ShutdownTasks.onCleanup( new Runnable()
+                {
+                    public void run()
+                    {
+                        deleteAll();
+                    }
+                }
+                );
+            }
+            s_leased.add( folder );
+        }
+    }
+
+    private static void delete( File folder )
+    {
+        long start = System.currentTimeMillis();
+        FileUtils.delete( folder );
+        synchronized( s_leased )
+        {
+            s_leased.remove( folder );
+        }
+        LOG.debug( "Deleted framework storage " + folder + " in " + ( System.currentTimeMillis() - start ) + " ms" );
+    }
+
+    private static void deleteAll()
+    {
+        Set<File> remaining;
+        synchronized( s_leased )
+        {
+            remaining = new HashSet<File>( s_leased );
+        }
+        for( File folder : remaining )
+        {
+            FileUtils.delete( folder );
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.io.File;
+import java.io.IOException;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class FrameworkSnapshotTest
+{
+
+    @Test
+    public void evictsLeastRecentlyUsedImages()
+        throws IOException
+    {
+        File dir = File.createTempFile( "snapshots", "" );
+        dir.delete();
+        try
+        {
+            long now = System.currentTimeMillis();
+            image( dir, "old", now - 30000 );
+            image( dir, "used", now );
+            image( dir, "recent", now - 10000 );
+            new File( dir, "capturing.tmp" ).mkdirs();
+
+            FrameworkSnapshot.evict( dir, 2 );
+
+            assertFalse( new File( dir, "old" ).exists() );
+            assertTrue( new File( dir, "used" ).exists() );
+            assertTrue( new File( dir, "recent" ).exists() );
+            assertTrue( new File( dir, "capturing.tmp" ).exists() );
+        } finally
+        {
+            FileUtils.delete( dir );
+        }
+    }
+
+    private static void image( File dir, String name, long used )
+        throws IOException
+    {
+        File image = new File( dir, name );
+        image.mkdirs();
+        new File( image, "bundle0" ).createNewFile();
+        File marker = new File( image, ".complete" );
+        marker.createNewFile();
+        marker.setLastModified( used );
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.nat.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.ServiceReference;
+import org.ops4j.pax.exam.Constants;
+import org.ops4j.pax.exam.TimeoutException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class NativeTestContainerTest
+{
+
+    private final int[] m_state = new int[1];
+    private BundleListener m_listener;
+
+    @Test
+    public void activeBundleIsAtLeastResolved()
+        throws TimeoutException
+    {
+        m_state[ 0 ] = Bundle.ACTIVE;
+        NativeTestContainer.waitForState( context(), new long[]{ 1 }, Bundle.RESOLVED, Constants.NO_WAIT );
+    }
+
+    @Test( expected = TimeoutException.class )
+    public void installedBundleIsNotResolved()
+        throws TimeoutException
+    {
+        m_state[ 0 ] = Bundle.INSTALLED;
+        NativeTestContainer.waitForState( context(), new long[]{ 1 }, Bundle.RESOLVED, Constants.NO_WAIT );
+    }
+
+    @Test
+    public void bundleEventWakesUpWaiter()
+        throws Exception
+    {
+        m_state[ 0 ] = Bundle.INSTALLED;
+        final BundleContext context = context();
+        Thread starter = new Thread()
+        {
+            @Override
+            public void run()
+            {
+                try
+                {
+                    Thread.sleep( 100 );
+                } catch( InterruptedException e )
+                {
+                    return;
+                }
+                synchronized( m_state )
+                {
+                    m_state[ 0 ] = Bundle.ACTIVE;
+                }
+                m_listener.bundleChanged( null );
+            }
+        };
+        starter.start();
+        long start = System.currentTimeMillis();
+        NativeTestContainer.waitForState( context, new long[]{ 1 }, Bundle.ACTIVE, 10000 );
+        assertTrue( System.currentTimeMillis() - start < 5000 );
+        starter.join();
+    }
+
+    @Test
+    public void unregisteredServiceIsLookedUpAgain()
+    {
+        final ServiceReference gone = reference();
+        final ServiceReference registered = reference();
+        final int[] lookups = new int[1];
+        BundleContext context = (BundleContext) proxy( BundleContext.class, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+            {
+                if( method.getName().equals( "getServiceReferences" ) )
+                {
+                    return new ServiceReference[]{ lookups[ 0 ]++ == 0 ? gone : registered };
+                }
+                if( method.getName().equals( "getService" ) )
+                {
+                    return args[ 0 ] == registered ? "service" : null;
+                }
+                return null;
+            }
+        }
+        );
+        assertEquals( "service", NativeTestContainer.getService( context, String.class, null, 10000 ) );
+        assertEquals( 2, lookups[ 0 ] );
+    }
+
+    private ServiceReference reference()
+    {
+        return (ServiceReference) proxy( ServiceReference.class, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+            {
+                if( method.getName().equals( "equals" ) )
+                {
+                    return proxy == args[ 0 ];
+                }
+                return null;
+            }
+        }
+        );
+    }
+
+    private BundleContext context()
+    {
+        final Bundle bundle = (Bundle) proxy( Bundle.class, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+            {
+                if( method.getName().equals( "getState" ) )
+                {
+                    synchronized( m_state )
+                    {
+                        return m_state[ 0 ];
+                    }
+                }
+                return null;
+            }
+        }
+        );
+        return (BundleContext) proxy( BundleContext.class, new InvocationHandler()
+        {
+            public Object invoke( Object proxy, Method method, Object[] args )
+            {
+                if( method.getName().equals( "getBundle" ) )
+                {
+                    return bundle;
+                }
+                if( method.getName().equals( "addBundleListener" ) )
+                {
+                    m_listener = (BundleListener) args[ 0 ];
+                }
+                return null;
+            }
+        }
+        );
+    }
+
+    private static Object proxy( Class<?> type, InvocationHandler handler )
+    {
+        return Proxy.newProxyInstance( type.getClassLoader(), new Class<?>[]{ type }, handler );
+    }
+}
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.Bundle;
@@ -45,6 +46,7 @@ import org.ops4j.pax.exam.options.ProvisionOption;
 import org.ops4j.pax.exam.options.TestContainerStartTimeoutOption;
 import org.ops4j.pax.exam.rbc.Constants;
 import org.ops4j.pax.exam.rbc.client.RemoteBundleContextClient;
+import org.ops4j.pax.exam.spi.KillableTestContainer;
 import org.ops4j.pax.exam.TimeoutException;
 import org.ops4j.pax.runner.Run;
 import org.ops4j.pax.runner.handler.internal.URLUtils;
@@ -66,7 +68,7 @@ import static org.ops4j.pax.exam.container.def.PaxRunnerOptions.*;
  * @since 0.3.0, December 09, 2008
  */
 public class PaxRunnerTestContainer
-    implements TestContainer
+    implements KillableTestContainer
 {
 
     private static final Log LOG = LogFactory.getLog( PaxRunnerTestContainer.class );
@@ -97,6 +99,11 @@ public class PaxRunnerTestContainer
      */
     private TestContainerSemaphore m_semaphore;
 
+    /**
+     * Set once the semaphore of the current start has been released, as kill() and stop() may both run.
+     */
+    private final AtomicBoolean m_released = new AtomicBoolean( true );
+
     private boolean m_started = false;
 
     /**
@@ -148,6 +155,7 @@ public class PaxRunnerTestContainer
         /**
          */
         m_semaphore = new TestContainerSemaphore( m_workingFolder );
+        m_released.set( false );
         // this makes sure the system is ready to launch a new instance.
         // this could fail, based on what acquire actually checks.
         // this also creates some persistent mark that will be removed by m_semaphore.release()
@@ -212,12 +220,40 @@ public class PaxRunnerTestContainer
         }
         finally
         {
-            m_semaphore.release();
+            releaseSemaphore();
             m_started = false;
         }
         return this;
     }
 
+    /**
+     * Destroys the Pax Runner process without asking the framework to shut down.
+     */
+    public void kill()
+    {
+        LOG.info( "Killing the test container (Pax Runner)" );
+        try
+        {
+            if( m_javaRunner != null )
+            {
+                m_javaRunner.shutdown();
+            }
+        }
+        finally
+        {
+            releaseSemaphore();
+            m_started = false;
+        }
+    }
+
+    private void releaseSemaphore()
+    {
+        if( m_semaphore != null && m_released.compareAndSet( false, true ) )
+        {
+            m_semaphore.release();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -17,8 +17,8 @@
  */
 package org.ops4j.pax.exam.container.remote;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionDescription;
 import org.ops4j.pax.exam.TestContainer;
@@ -31,7 +31,7 @@ import org.ops4j.pax.exam.TestContainerFactory;
 public class RBCRemoteContainerFactory implements TestContainerFactory
 {
 
-    final private Map<OptionDescription, TestContainer> m_registry = new HashMap<OptionDescription, TestContainer>();
+    final private Map<OptionDescription, TestContainer> m_registry = new ConcurrentHashMap<OptionDescription, TestContainer>();
 
     /**
      * {@inheritDoc}
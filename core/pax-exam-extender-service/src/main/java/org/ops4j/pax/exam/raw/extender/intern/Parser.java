@@ -19,8 +19,12 @@ package org.ops4j.pax.exam.raw.extender.intern;
 
 import java.util.ArrayList;
 import java.util.Dictionary;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +43,7 @@ public class Parser
 
     public Parser( BundleContext ctx, String sigs, List<ManifestEntry> manifestEntries )
     {
-        List<String> signatures = new ArrayList<String>();
+        Set<String> signatures = new HashSet<String>();
         List<Probe> probes = new ArrayList<Probe>();
 
         // read signatures
@@ -58,6 +62,20 @@ public class Parser
         m_probes = probes.toArray( new Probe[probes.size()] );
     }
 
+    /**
+     * @param ctx   context of the probe bundle
+     * @param index probe index (signature=instruction)
+     */
+    public Parser( BundleContext ctx, Properties index )
+    {
+        List<Probe> probes = new ArrayList<Probe>( index.size() );
+        for( Map.Entry<Object, Object> entry : index.entrySet() )
+        {
+            probes.add( make( ctx, (String) entry.getKey(), (String) entry.getValue() ) );
+        }
+        m_probes = probes.toArray( new Probe[probes.size()] );
+    }
+
     private Probe make( BundleContext ctx, String sig, String expr )
     {
         // should be a service really
@@ -17,11 +17,13 @@
  */
 package org.ops4j.pax.exam.raw.extender.intern;
 
-import java.util.Dictionary;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 import java.util.HashMap;
-import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.Bundle;
@@ -65,18 +67,29 @@ public class TestBundleObserver implements BundleObserver<ManifestEntry>
                                final List<ManifestEntry> manifestEntries )
     {
         String testExec = null;
+        String index = null;
         for( ManifestEntry manifestEntry : manifestEntries )
         {
-
-            if( Constants.PROBE_EXECUTABLE.equals( manifestEntry.getKey() ) )
+            if( Constants.PROBE_INDEX.equals( manifestEntry.getKey() ) )
+            {
+                index = manifestEntry.getValue();
+            }
+            else if( Constants.PROBE_EXECUTABLE.equals( manifestEntry.getKey() ) )
             {
                 testExec = manifestEntry.getValue();
-                break;
             }
         }
-        if( testExec != null )
+        Parser parser = null;
+        if( index != null )
+        {
+            parser = new Parser( bundle.getBundleContext(), readIndex( bundle, index ) );
+        }
+        else if( testExec != null )
+        {
+            parser = new Parser( bundle.getBundleContext(), testExec, manifestEntries );
+        }
+        if( parser != null )
         {
-            Parser parser = new Parser( bundle.getBundleContext(), testExec, manifestEntries );
             for( Probe p : parser.getProbes() )
             {
                 final BundleContext bundleContext = BundleUtils.getBundleContext( bundle );
@@ -87,6 +100,32 @@ public class TestBundleObserver implements BundleObserver<ManifestEntry>
         }
     }
 
+    private Properties readIndex( Bundle bundle, String path )
+    {
+        Properties index = new Properties();
+        URL url = bundle.getEntry( path );
+        if( url == null )
+        {
+            LOG.error( "Probe index " + path + " not found in bundle " + bundle.getSymbolicName() );
+            return index;
+        }
+        try
+        {
+            InputStream in = url.openStream();
+            try
+            {
+                index.load( in );
+            } finally
+            {
+                in.close();
+            }
+        } catch( IOException e )
+        {
+            LOG.error( "Cannot read probe index " + path + " of bundle " + bundle.getSymbolicName(), e );
+        }
+        return index;
+    }
+
     /**
      * {@inheritDoc}
      * Unregisters prior registered test for the service.
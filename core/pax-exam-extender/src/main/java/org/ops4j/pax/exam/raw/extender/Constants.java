@@ -28,6 +28,15 @@ public class Constants
      * Manifest header specifying the string of executable services.
      */
     public static final String PROBE_EXECUTABLE = "PaxExam-Executable";
+    /**
+     * Manifest header pointing to the probe index resource. Used instead of {@link #PROBE_EXECUTABLE} and one header per
+     * test. The index is a properties file of signature=instruction lines.
+     */
+    public static final String PROBE_INDEX = "PaxExam-Index";
+    /**
+     * Location of the probe index resource inside the probe.
+     */
+    public static final String PROBE_INDEX_RESOURCE = "META-INF/pax-exam/probe.index";
     /**
      * Test bundle symbolic name.
      */
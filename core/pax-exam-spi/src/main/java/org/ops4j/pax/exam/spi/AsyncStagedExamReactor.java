@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import org.ops4j.pax.exam.TestContainer;
+
+/**
+ * A {@link StagedExamReactor} that may still be booting its containers when handed out by
+ * {@link ExxamReactor#stage()}. {@link #invoke(TestAddress)} waits for the containers it needs.
+ * Drivers can use the readiness futures to schedule around slow containers.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public interface AsyncStagedExamReactor extends StagedExamReactor
+{
+
+    /**
+     * @return one future per container, done when the container is started and provisioned. Fails if staging failed.
+     */
+    List<Future<TestContainer>> getReadiness();
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi;
+
+import java.io.File;
+
+/**
+ * A {@link TestProbeProvider} that can also hand out its probe as a folder, for {@link InProcessTestTarget}s.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public interface ExplodedProbeProvider extends TestProbeProvider
+{
+
+    /**
+     * @return folder with a generated probe manifest that references the probe classes in place, or null if the probe
+     *         cannot be provided as a single folder (like when it has been merged from several class roots).
+     */
+    File getFolder();
+}
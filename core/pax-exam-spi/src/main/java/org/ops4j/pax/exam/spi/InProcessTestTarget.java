@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi;
+
+import java.io.File;
+import org.ops4j.pax.exam.TestTarget;
+
+/**
+ * A {@link TestTarget} running inside this JVM that can install bundles right from a folder on disk, without the content
+ * being jarred or copied.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public interface InProcessTestTarget extends TestTarget
+{
+
+    /**
+     * @param folder exploded bundle, must contain a META-INF/MANIFEST.MF.
+     *
+     * @return Bundle ID or -1 if the folder could not be installed (callers may fall back to a stream install).
+     */
+    long install( File folder );
+}
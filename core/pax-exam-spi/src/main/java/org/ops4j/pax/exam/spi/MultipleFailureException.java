@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the failures of a single test that was invoked on several containers at once.
+ * Each failure is kept together with a description of the container it occurred in.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class MultipleFailureException extends Exception
+{
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> m_sources;
+    private final List<Throwable> m_failures;
+
+    /**
+     * @param sources  descriptions of the containers that failed, same order as failures.
+     * @param failures failures, one per source.
+     */
+    public MultipleFailureException( List<String> sources, List<Throwable> failures )
+    {
+        super( message( sources, failures ), failures.isEmpty() ? null : failures.get( 0 ) );
+        m_sources = Collections.unmodifiableList( new ArrayList<String>( sources ) );
+        m_failures = Collections.unmodifiableList( new ArrayList<Throwable>( failures ) );
+    }
+
+    public List<String> getSources()
+    {
+        return m_sources;
+    }
+
+    public List<Throwable> getFailures()
+    {
+        return m_failures;
+    }
+
+    private static String message( List<String> sources, List<Throwable> failures )
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "There were " ).append( failures.size() ).append( " failures:" );
+        for( int i = 0; i < failures.size(); i++ )
+        {
+            sb.append( "\n  " ).append( sources.get( i ) ).append( ": " ).append( failures.get( i ) );
+        }
+        return sb.toString();
+    }
+}
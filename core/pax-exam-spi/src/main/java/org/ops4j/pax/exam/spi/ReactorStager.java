@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi;
+
+/**
+ * Stages a reactor from a textual recipe, like the name of a test class. Used where reactors have to be built in
+ * another process, which cannot be handed options and probes directly.
+ * Implementations need a public no-argument constructor.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public interface ReactorStager
+{
+
+    /**
+     * @param recipe what to stage, meaning depends on the implementation.
+     *
+     * @return staged reactor.
+     *
+     * @throws Exception in case staging fails.
+     */
+    StagedExamReactor stage( String recipe )
+        throws Exception;
+}
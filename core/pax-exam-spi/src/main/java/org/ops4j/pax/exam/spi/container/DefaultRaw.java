@@ -24,7 +24,11 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +37,7 @@ import org.ops4j.pax.exam.raw.extender.ProbeInvoker;
 import org.ops4j.pax.exam.spi.TestAddress;
 import org.ops4j.pax.exam.spi.TestProbeBuilder;
 import org.ops4j.pax.exam.spi.TestProbeProvider;
+import org.ops4j.pax.exam.spi.probesupport.ContentDigest;
 import org.ops4j.pax.exam.spi.probesupport.TestProbeBuilderImpl;
 
 /**
@@ -45,33 +50,89 @@ public class DefaultRaw {
 
     private static Logger LOG = LoggerFactory.getLogger(DefaultRaw.class);
 
-    private static int id = 0;
     private static final String PAX_EXAM_EXECUTABLE_SIG = "PaxExam-Executable-SIG";
     private static final String PROBE_SIGNATURE_KEY = "Probe-Signature";
+    private static final int SIGNATURE_LENGTH = 16;
 
     public static TestProbeBuilder createProbe() {
         return new TestProbeBuilderImpl();
     }
 
     public static TestAddress call(Class clazz, String method) {
-        return new ClassMethodTestAddress(PAX_EXAM_EXECUTABLE_SIG + (id++), clazz, method);
+        return new ClassMethodTestAddress(signature(clazz, method), clazz, method);
     }
 
     public static TestAddress[] call(Class clazz) {
         List<TestAddress> calls = new ArrayList<TestAddress>();
         for (String m : parseMethods(clazz)) {
-            calls.add(new ClassMethodTestAddress(PAX_EXAM_EXECUTABLE_SIG + (id++), clazz, m));
+            calls.add(new ClassMethodTestAddress(signature(clazz, m), clazz, m));
         }
         return calls.toArray(new TestAddress[calls.size()]);
     }
 
     /**
-     * parse test methods using reflection
+     * Signatures are derived from a hash of class name, method name and parameter types, so the same call gets the
+     * same signature in every run and JVM (and probes become reproducible byte by byte).
+     * In the unlikely case that the hash starts like the one of another public method of the same class, more characters
+     * of the hash are used until they differ. This only depends on the class, not on the calls made before.
+     *
+     * @param clazz  class declaring method
+     * @param method name of the method
+     *
+     * @return signature for the call
+     */
+    static String signature(Class clazz, String method) {
+        String hash = hash(clazz, method);
+        int length = SIGNATURE_LENGTH;
+        Set<String> siblings = new HashSet<String>();
+        for (Method m : clazz.getDeclaredMethods()) {
+            if (Modifier.isPublic(m.getModifiers()) && !m.getName().equals(method) && siblings.add(m.getName())) {
+                String other = hash(clazz, m.getName());
+                while (length < hash.length() && hash.regionMatches(0, other, 0, length)) {
+                    length += 8;
+                }
+            }
+        }
+        return PAX_EXAM_EXECUTABLE_SIG + hash.substring(0, Math.min(length, hash.length()));
+    }
+
+    private static String hash(Class clazz, String method) {
+        return new ContentDigest().update(identity(clazz, method)).toHex();
+    }
+
+    /**
+     * @return class name, method name and parameter types of all public overloads, like org.Foo;bar(int)(java.lang.String)
+     */
+    private static String identity(Class clazz, String method) {
+        List<String> shapes = new ArrayList<String>();
+        for (Method m : clazz.getDeclaredMethods()) {
+            if (m.getName().equals(method) && Modifier.isPublic(m.getModifiers())) {
+                StringBuilder sb = new StringBuilder("(");
+                for (Class type : m.getParameterTypes()) {
+                    if (sb.length() > 1) {
+                        sb.append(",");
+                    }
+                    sb.append(type.getName());
+                }
+                shapes.add(sb.append(")").toString());
+            }
+        }
+        Collections.sort(shapes);
+        StringBuilder sb = new StringBuilder(clazz.getName()).append(";").append(method);
+        for (String shape : shapes) {
+            sb.append(shape);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * parse test methods using reflection. Names are sorted (and overloads collapsed) so probes do not depend on
+     * reflection order.
      *
      * @param clazz
      */
     private static String[] parseMethods(Class clazz) {
-        List<String> calls = new ArrayList<String>();
+        Set<String> calls = new TreeSet<String>();
 
         for (Method m : clazz.getDeclaredMethods()) {
             if (Modifier.isPublic(m.getModifiers())) {
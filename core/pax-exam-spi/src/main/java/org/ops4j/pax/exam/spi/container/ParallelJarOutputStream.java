@@ -0,0 +1,485 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.container;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * A JarOutputStream that compresses entries concurrently.
+ *
+ * Entry content is collected in memory and deflated on a shared, bounded pool of daemon threads while the caller goes on
+ * writing the next entries. Local headers, data and the central directory are written by this class itself, always in
+ * the order entries have been added, so the result does not depend on thread scheduling. Each entry is written to the
+ * underlying stream as soon as it and all entries before it are compressed; only header fields are kept for the central
+ * directory, and at most {@link #MAX_PENDING} entries wait for compression at a time.
+ *
+ * Like {@link DuplicateAwareJarOutputStream} this omits any writing of duplicate entries (first come first serve).
+ * With {@link ZipEntry#STORED} nothing is compressed at all, which is the fastest option for jars that are only read
+ * locally.
+ *
+ * Entries without a time get {@link #ENTRY_TIME}, so jars with equal content are byte-identical.
+ *
+ * Zip64 is not supported (more than 65535 entries or 4GB).
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ParallelJarOutputStream extends JarOutputStream
+{
+
+    /**
+     * Time of entries that do not have one (Feb 1, 1980 UTC), so equal content always gives equal bytes.
+     */
+    public static final long ENTRY_TIME = 318211200000L;
+
+    private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Entries compressed ahead of the one to be written next, before the caller is held back.
+     */
+    static final int MAX_PENDING = 4 * THREADS;
+
+    private static final ExecutorService s_pool = Executors.newFixedThreadPool(
+        THREADS, new ThreadFactory()
+    {
+        public Thread newThread( Runnable r )
+        {
+            Thread t = new Thread( r, "pax-exam-deflate" );
+            t.setDaemon( true );
+            return t;
+        }
+    }
+    );
+
+    /**
+     * Pool threads never die, so each keeps one deflater for its lifetime.
+     */
+    private static final ThreadLocal<Deflater> s_deflater = new ThreadLocal<Deflater>()
+    {
+        protected Deflater initialValue()
+        {
+            return new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+        }
+    };
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int UTF8_FLAG = 0x800;
+    private static final long MAX_32 = 0xFFFFFFFFL;
+
+    private final OutputStream m_out;
+    private final int m_method;
+
+    private final Set<String> m_entrynames = new HashSet<String>();
+    private final LinkedList<Future<Entry>> m_pending = new LinkedList<Future<Entry>>();
+    /**
+     * Entries already written, without their data.
+     */
+    private final List<Entry> m_written = new ArrayList<Entry>();
+
+    private ByteArrayOutputStream m_current;
+    private String m_currentName;
+    private long m_currentTime;
+    private long m_offset;
+    private boolean m_finished;
+    private Deflater m_deflater;
+
+    /**
+     * @param out    stream to write to
+     * @param method {@link ZipEntry#DEFLATED} or {@link ZipEntry#STORED}
+     */
+    public ParallelJarOutputStream( OutputStream out, int method )
+        throws IOException
+    {
+        super( out );
+        if( method != ZipEntry.DEFLATED && method != ZipEntry.STORED )
+        {
+            throw new IllegalArgumentException( "Unsupported compression method " + method );
+        }
+        m_out = out;
+        m_method = method;
+    }
+
+    public ParallelJarOutputStream( OutputStream out, Manifest manifest, int method )
+        throws IOException
+    {
+        this( out, method );
+        putNextEntry( new ZipEntry( JarFile.MANIFEST_NAME ) );
+        manifest.write( this );
+        closeEntry();
+    }
+
+    public void putNextEntry( ZipEntry zipEntry )
+        throws IOException
+    {
+        closeEntry();
+        if( utf8( zipEntry.getName() ).length > 0xFFFF )
+        {
+            throw new ZipException( "Entry name too long: " + zipEntry.getName().substring( 0, 64 ) + "..." );
+        }
+        if( m_entrynames.add( zipEntry.getName() ) )
+        {
+            m_current = new ByteArrayOutputStream( zipEntry.getSize() > 0 ? (int) zipEntry.getSize() : 4096 );
+            m_currentName = zipEntry.getName();
+            m_currentTime = zipEntry.getTime() == -1 ? ENTRY_TIME : zipEntry.getTime();
+        }
+    }
+
+    public void write( int i )
+        throws IOException
+    {
+        if( m_current != null )
+        {
+            m_current.write( i );
+        }
+    }
+
+    public void write( byte[] bytes, int off, int len )
+        throws IOException
+    {
+        if( m_current != null )
+        {
+            m_current.write( bytes, off, len );
+        }
+    }
+
+    public void closeEntry()
+        throws IOException
+    {
+        if( m_current == null )
+        {
+            return;
+        }
+        final String name = m_currentName;
+        final long time = m_currentTime;
+        final byte[] data = m_current.toByteArray();
+        m_current = null;
+        final int method = name.endsWith( "/" ) ? ZipEntry.STORED : m_method;
+
+        if( method == ZipEntry.STORED )
+        {
+            m_pending.add( new Done( new Entry( name, time, method, data, data ) ) );
+        }
+        else if( THREADS == 1 )
+        {
+            // nothing to gain from handing over to another thread.
+            if( m_deflater == null )
+            {
+                m_deflater = new Deflater( Deflater.DEFAULT_COMPRESSION, true );
+            }
+            m_pending.add( new Done( new Entry( name, time, method, data, deflate( m_deflater, data ) ) ) );
+        }
+        else
+        {
+            m_pending.add( s_pool.submit( new Callable<Entry>()
+            {
+                public Entry call()
+                {
+                    return new Entry( name, time, method, data, deflate( s_deflater.get(), data ) );
+                }
+            }
+            )
+            );
+        }
+        drain( false );
+    }
+
+    public void finish()
+        throws IOException
+    {
+        if( m_finished )
+        {
+            return;
+        }
+        closeEntry();
+        drain( true );
+
+        long start = m_offset;
+        long size = 0;
+        for( Entry e : m_written )
+        {
+            size += 46 + e.m_name.length;
+        }
+        // checked up front, a truncated central directory would be worse than none
+        if( m_written.size() > 0xFFFF || start > MAX_32 || start + size > MAX_32 )
+        {
+            throw new ZipException( "Too many entries or content too large. Zip64 is not supported." );
+        }
+        for( Entry e : m_written )
+        {
+            writeInt( CENTRAL_HEADER );
+            writeShort( 20 );
+            writeHeaderFields( e );
+            writeShort( 0 ); // comment length
+            writeShort( 0 ); // disk number
+            writeShort( 0 ); // internal attributes
+            writeInt( 0 ); // external attributes
+            writeInt( e.m_offset );
+            writeBytes( e.m_name );
+        }
+        writeInt( END_HEADER );
+        writeShort( 0 );
+        writeShort( 0 );
+        writeShort( m_written.size() );
+        writeShort( m_written.size() );
+        writeInt( size );
+        writeInt( start );
+        writeShort( 0 );
+        m_out.flush();
+        m_finished = true;
+    }
+
+    public void close()
+        throws IOException
+    {
+        try
+        {
+            finish();
+        } finally
+        {
+            // deflater of the super class has never been used but holds native memory.
+            def.end();
+            if( m_deflater != null )
+            {
+                m_deflater.end();
+            }
+            m_out.close();
+        }
+    }
+
+    /**
+     * Writes completed entries in order.
+     *
+     * @param wait if true, waits for all pending entries, otherwise stops at the first one not yet done unless there are
+     *             more than {@link #MAX_PENDING}.
+     */
+    private void drain( boolean wait )
+        throws IOException
+    {
+        while( !m_pending.isEmpty()
+               && ( wait || m_pending.getFirst().isDone() || m_pending.size() > MAX_PENDING ) )
+        {
+            Entry e;
+            try
+            {
+                e = m_pending.removeFirst().get();
+            } catch( InterruptedException ie )
+            {
+                Thread.currentThread().interrupt();
+                throw (IOException) new IOException( "Interrupted while compressing." ).initCause( ie );
+            } catch( ExecutionException ee )
+            {
+                throw (IOException) new IOException( "Cannot compress entry." ).initCause( ee.getCause() );
+            }
+            e.m_offset = m_offset;
+            if( e.m_offset > MAX_32 )
+            {
+                throw new ZipException( "Content too large. Zip64 is not supported." );
+            }
+            writeInt( LOCAL_HEADER );
+            writeHeaderFields( e );
+            writeBytes( e.m_name );
+            m_out.write( e.m_data );
+            m_offset += e.m_data.length;
+            e.m_data = null;
+            m_written.add( e );
+        }
+    }
+
+    /**
+     * Fields shared by local and central headers, from "version needed" up to "extra field length".
+     */
+    private void writeHeaderFields( Entry e )
+        throws IOException
+    {
+        writeShort( e.m_method == ZipEntry.STORED ? 10 : 20 );
+        writeShort( UTF8_FLAG );
+        writeShort( e.m_method );
+        writeInt( e.m_dosTime );
+        writeInt( e.m_crc );
+        writeInt( e.m_compressedSize );
+        writeInt( e.m_size );
+        writeShort( e.m_name.length );
+        writeShort( 0 );
+    }
+
+    private void writeShort( int v )
+        throws IOException
+    {
+        m_out.write( v & 0xff );
+        m_out.write( ( v >>> 8 ) & 0xff );
+        m_offset += 2;
+    }
+
+    private void writeInt( long v )
+        throws IOException
+    {
+        writeShort( (int) ( v & 0xffff ) );
+        writeShort( (int) ( ( v >>> 16 ) & 0xffff ) );
+    }
+
+    private void writeBytes( byte[] b )
+        throws IOException
+    {
+        m_out.write( b );
+        m_offset += b.length;
+    }
+
+    private static byte[] deflate( Deflater deflater, byte[] data )
+    {
+        try
+        {
+            deflater.setInput( data );
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream( data.length / 2 + 64 );
+            byte[] buffer = new byte[8192];
+            while( !deflater.finished() )
+            {
+                out.write( buffer, 0, deflater.deflate( buffer ) );
+            }
+            return out.toByteArray();
+        } finally
+        {
+            deflater.reset();
+        }
+    }
+
+    private static byte[] utf8( String name )
+    {
+        try
+        {
+            return name.getBytes( "UTF-8" );
+        } catch( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Converts to MS-DOS date and time in UTC, so the jar does not depend on the time zone it was built in.
+     */
+    private static long dosTime( long time )
+    {
+        Calendar c = Calendar.getInstance( TimeZone.getTimeZone( "UTC" ) );
+        c.setTimeInMillis( time );
+        int year = c.get( Calendar.YEAR );
+        if( year < 1980 )
+        {
+            return ( 1 << 21 ) | ( 1 << 16 );
+        }
+        return ( (long) ( year - 1980 ) << 25 )
+               | ( ( c.get( Calendar.MONTH ) + 1 ) << 21 )
+               | ( c.get( Calendar.DAY_OF_MONTH ) << 16 )
+               | ( c.get( Calendar.HOUR_OF_DAY ) << 11 )
+               | ( c.get( Calendar.MINUTE ) << 5 )
+               | ( c.get( Calendar.SECOND ) >> 1 );
+    }
+
+    /**
+     * A finished entry, ready to be written.
+     */
+    private static class Entry
+    {
+
+        private final byte[] m_name;
+        private final long m_dosTime;
+        private final int m_method;
+        private final long m_crc;
+        private final long m_size;
+        private final long m_compressedSize;
+        private byte[] m_data;
+        private long m_offset;
+
+        Entry( String name, long time, int method, byte[] content, byte[] data )
+        {
+            m_name = utf8( name );
+            m_dosTime = dosTime( time );
+            m_method = method;
+            CRC32 crc = new CRC32();
+            crc.update( content );
+            m_crc = crc.getValue();
+            m_size = content.length;
+            m_compressedSize = data.length;
+            m_data = data;
+        }
+    }
+
+    /**
+     * An already completed future for entries compressed (if at all) on the calling thread.
+     */
+    private static class Done implements Future<Entry>
+    {
+
+        private final Entry m_entry;
+
+        Done( Entry entry )
+        {
+            m_entry = entry;
+        }
+
+        public boolean cancel( boolean mayInterruptIfRunning )
+        {
+            return false;
+        }
+
+        public boolean isCancelled()
+        {
+            return false;
+        }
+
+        public boolean isDone()
+        {
+            return true;
+        }
+
+        public Entry get()
+        {
+            return m_entry;
+        }
+
+        public Entry get( long timeout, TimeUnit unit )
+        {
+            return m_entry;
+        }
+    }
+}
@@ -23,11 +23,17 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.TestContainerException;
 import org.ops4j.pax.exam.TestContainerFactory;
+import org.ops4j.pax.exam.options.ReUsePolicy;
 import org.ops4j.pax.exam.spi.ExxamReactor;
 import org.ops4j.pax.exam.spi.StagedExamReactor;
 import org.ops4j.pax.exam.spi.TestProbeBuilder;
+import org.ops4j.pax.exam.spi.probesupport.ProbeMerger;
+import org.ops4j.pax.exam.spi.reactors.AllConfinedStagedReactor;
 import org.ops4j.pax.exam.spi.reactors.EagerSingleStagedReactor;
+import org.ops4j.pax.exam.spi.reactors.OptionFingerprint;
+import org.ops4j.pax.exam.spi.reactors.PooledStagedReactor;
 
 /**
  * Reactor decouples {@link org.ops4j.pax.exam.TestContainer} state from the observer. It is also
@@ -41,6 +47,14 @@ public class DefaultExamReactor implements ExxamReactor
 
     private static Log LOG = LogFactory.getLog( DefaultExamReactor.class );
 
+    /**
+     * System property to select the container re-use policy of all reactors, one of {@link ReUsePolicy}.
+     * (default: TEST)
+     * ALWAYS shares running containers between test classes with equal configurations, NEVER boots a container per
+     * test.
+     */
+    public static final String REUSE_POLICY = "org.ops4j.pax.exam.reactor.reuse";
+
     final private List<Option[]> m_configurations;
     final private List<TestProbeBuilder> m_probes;
     final private TestContainerFactory m_factory;
@@ -72,7 +86,45 @@ public class DefaultExamReactor implements ExxamReactor
         // for now we don't care
         // return new AllConfinedStagedReactor( m_configurations, m_probes );
 
-        return new EagerSingleStagedReactor( m_factory, m_configurations, m_probes );
+        List<TestProbeBuilder> probes = m_probes;
+        if( Boolean.parseBoolean( System.getProperty( ProbeMerger.ENABLED, "true" ) ) )
+        {
+            probes = ProbeMerger.merge( m_probes );
+        }
+        // identical configurations would boot identical containers
+        List<Option[]> configurations = OptionFingerprint.distinct( m_configurations );
+        if( configurations.size() < m_configurations.size() )
+        {
+            LOG.info( "Skipping " + ( m_configurations.size() - configurations.size() ) + " duplicate configuration(s)" );
+        }
+        switch( getReUsePolicy() )
+        {
+            case ALWAYS:
+                return new PooledStagedReactor( m_factory, configurations, probes );
+            case NEVER:
+                return new AllConfinedStagedReactor( m_factory, configurations, probes );
+            default:
+                return new EagerSingleStagedReactor( m_factory, configurations, probes );
+        }
+    }
+
+    /**
+     * @return policy selected by {@link #REUSE_POLICY}, or {@link ReUsePolicy#TEST} if there is none.
+     */
+    private ReUsePolicy getReUsePolicy()
+    {
+        String policy = System.getProperty( REUSE_POLICY );
+        if( policy == null || policy.trim().length() == 0 )
+        {
+            return ReUsePolicy.TEST;
+        }
+        try
+        {
+            return ReUsePolicy.valueOf( policy.trim().toUpperCase() );
+        } catch( IllegalArgumentException e )
+        {
+            throw new TestContainerException( "Unknown re-use policy " + policy + " in " + REUSE_POLICY );
+        }
     }
 
 }
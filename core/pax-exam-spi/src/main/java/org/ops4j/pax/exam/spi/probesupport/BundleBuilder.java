@@ -20,13 +20,16 @@ package org.ops4j.pax.exam.spi.probesupport;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.Properties;
 import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
 import org.osgi.framework.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.io.StreamUtils;
 import org.ops4j.lang.NullArgumentException;
-import org.ops4j.pax.exam.spi.container.DuplicateAwareJarOutputStream;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
 import org.ops4j.pax.swissbox.bnd.BndUtils;
 
 /**
@@ -39,6 +42,17 @@ import org.ops4j.pax.swissbox.bnd.BndUtils;
 public class BundleBuilder
 {
 
+    private static Logger LOG = LoggerFactory.getLogger( BundleBuilder.class );
+
+    /**
+     * System property to write probes without compression. (default: false)
+     * Fastest option for probes that are only installed locally. Applies only with {@link ManifestCache#ENABLED} set,
+     * otherwise bnd writes the probe.
+     */
+    public static final String STORED = "org.ops4j.pax.exam.probe.stored";
+
+    private static final ManifestCache s_manifests = new ManifestCache( 32 );
+
     private ResourceLocator m_resourceLocator;
 
     private Properties m_refs;
@@ -62,57 +76,52 @@ public class BundleBuilder
 
     /**
      * Builds an osgi bundle out of settings given while creating this instance.
-     * Output is being asynchronously in a new thread when reading from the InputStream returned by this method.
+     * The jar is assembled in memory in a single pass and handed over to bnd without copying it.
      *
-     * @return an inputstream that must be flushed in order to actually invoke the bundle getStream process.
+     * @return an inputstream of the final bundle.
      */
     public InputStream build()
     {
         try
         {
-            // 1. create a basic jar with all classes in it..
-            final PipedOutputStream pout = new PipedOutputStream();
-            PipedInputStream fis = new PipedInputStream( pout );
-            new Thread()
-            {
-
-                public void run()
-                {
-                    JarOutputStream jos;
-                    try
-                    {
-                        jos = new DuplicateAwareJarOutputStream( pout );
-                        m_resourceLocator.write( jos );
-                        jos.close();
-                    }
-
-                    catch( IOException e )
-                    {
-                        //throw new RuntimeException( e );
-                    }
-                    finally
-                    {
-                        try
-                        {
-                            pout.close();
-                        }
-                        catch( Exception e )
-                        {
-                            //  throw new TestExecutionException( "Cannot close builder stream ??", e );
-                        }
-                    }
-                }
-            }.start();
+            // 1. create a basic jar with all classes in it.. uncompressed as it is only read by bnd.
+            ProbeBuffer buffer = new ProbeBuffer();
+            JarOutputStream jos = new ParallelJarOutputStream( buffer, ZipEntry.STORED );
+            m_resourceLocator.write( jos );
+            jos.close();
+            ProbeBuffer.built( buffer.size() );
 
             // TODO set args on BndUtils
             if( m_refs.getProperty( Constants.BUNDLE_SYMBOLICNAME ) == null )
             {
                 m_refs.setProperty( Constants.BUNDLE_SYMBOLICNAME, "BuiltByDirUrlHandler" );
             }
-            InputStream result = BndUtils.createBundle( fis, m_refs, m_resourceLocator.toString() );
-            fis.close();
-            pout.close();
-            return result;
+            if( !Boolean.getBoolean( ManifestCache.ENABLED ) )
+            {
+                return BndUtils.createBundle( buffer.toInputStream(), m_refs, m_resourceLocator.toString() );
+            }
+
+            // 2. bnd only needs to run once per distinct content, probe headers are patched in afterwards.
+            // The final bundle is always written by the cache, so equal probes are byte-identical.
+            int method = Boolean.getBoolean( STORED ) ? ZipEntry.STORED : ZipEntry.DEFLATED;
+            String key = s_manifests.key( buffer, m_refs );
+            Manifest cached = s_manifests.get( key );
+            if( cached != null )
+            {
+                LOG.debug( "Reusing manifest " + key + " computed earlier." );
+                return s_manifests.patch( cached, m_refs, buffer, method );
+            }
+            ProbeBuffer bundle = new ProbeBuffer();
+            StreamUtils.copyStream(
+                BndUtils.createBundle( buffer.toInputStream(), m_refs, m_resourceLocator.toString() ), bundle, true
+            );
+            Manifest computed = ManifestCache.readManifest( bundle );
+            if( computed == null )
+            {
+                return bundle.toInputStream();
+            }
+            s_manifests.put( key, computed );
+            return s_manifests.patch( s_manifests.get( key ), m_refs, buffer, method );
         }
         catch( IOException e )
         {
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Reads the constant pool of a class file and returns all class names it may refer to.
+ * That includes class entries, types used in descriptors and generic signatures as well as string constants that look
+ * like class names (for Class.forName style lookups).
+ *
+ * Results may contain names that are not classes at all. Callers are expected to check for existence.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ClassReferences
+{
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int FLOAT = 4;
+    private static final int LONG = 5;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD_REF = 9;
+    private static final int METHOD_REF = 10;
+    private static final int INTERFACE_METHOD_REF = 11;
+    private static final int NAME_AND_TYPE = 12;
+    private static final int METHOD_HANDLE = 15;
+    private static final int METHOD_TYPE = 16;
+    private static final int DYNAMIC = 17;
+    private static final int INVOKE_DYNAMIC = 18;
+    private static final int MODULE = 19;
+    private static final int PACKAGE = 20;
+
+    private ClassReferences()
+    {
+        // utility class
+    }
+
+    /**
+     * @param classFile content of a class file. Will not be closed.
+     *
+     * @return internal names (like org/foo/Bar) of referenced classes.
+     *
+     * @throws IOException if classFile is not a valid class file.
+     */
+    public static Set<String> read( InputStream classFile )
+        throws IOException
+    {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( classFile ) );
+        if( in.readInt() != MAGIC )
+        {
+            throw new IOException( "Not a class file." );
+        }
+        in.readUnsignedShort(); // minor
+        in.readUnsignedShort(); // major
+        int count = in.readUnsignedShort();
+
+        String[] utf8 = new String[count];
+        int[] classes = new int[count];
+        int classCount = 0;
+
+        for( int i = 1; i < count; i++ )
+        {
+            int tag = in.readUnsignedByte();
+            switch( tag )
+            {
+                case UTF8:
+                    utf8[ i ] = in.readUTF();
+                    break;
+                case CLASS:
+                    classes[ classCount++ ] = in.readUnsignedShort();
+                    break;
+                case STRING:
+                case METHOD_TYPE:
+                case MODULE:
+                case PACKAGE:
+                    in.skipBytes( 2 );
+                    break;
+                case METHOD_HANDLE:
+                    in.skipBytes( 3 );
+                    break;
+                case INTEGER:
+                case FLOAT:
+                case FIELD_REF:
+                case METHOD_REF:
+                case INTERFACE_METHOD_REF:
+                case NAME_AND_TYPE:
+                case DYNAMIC:
+                case INVOKE_DYNAMIC:
+                    in.skipBytes( 4 );
+                    break;
+                case LONG:
+                case DOUBLE:
+                    in.skipBytes( 8 );
+                    // takes two slots
+                    i++;
+                    break;
+                default:
+                    throw new IOException( "Unknown constant pool tag " + tag + " at index " + i );
+            }
+        }
+
+        Set<String> result = new HashSet<String>();
+        for( int i = 0; i < classCount; i++ )
+        {
+            String name = utf8[ classes[ i ] ];
+            if( name != null )
+            {
+                if( name.startsWith( "[" ) )
+                {
+                    addDescriptorTypes( name, result );
+                }
+                else
+                {
+                    result.add( name );
+                }
+            }
+        }
+        for( String s : utf8 )
+        {
+            if( s != null )
+            {
+                addDescriptorTypes( s, result );
+                if( s.indexOf( '.' ) > 0 && s.indexOf( ' ' ) < 0 && s.indexOf( '/' ) < 0 )
+                {
+                    // maybe a class name used reflectively.
+                    result.add( s.replace( '.', '/' ) );
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Picks all "Lsome/Type;" (or "Lsome/Type<" in generic signatures) occurences out of s.
+     */
+    private static void addDescriptorTypes( String s, Set<String> result )
+    {
+        int idx = s.indexOf( 'L' );
+        while( idx >= 0 )
+        {
+            int end = idx + 1;
+            while( end < s.length() && s.charAt( end ) != ';' && s.charAt( end ) != '<' )
+            {
+                end++;
+            }
+            if( end < s.length() && end > idx + 1 )
+            {
+                result.add( s.substring( idx + 1, end ) );
+            }
+            idx = s.indexOf( 'L', idx + 1 );
+        }
+    }
+}
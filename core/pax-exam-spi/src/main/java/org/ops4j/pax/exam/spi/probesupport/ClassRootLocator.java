@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.lang.NullArgumentException;
+
+/**
+ * Finds the root folder (like target/test-classes) a class has been loaded from.
+ *
+ * First tries the {@link CodeSource} of the class. Only if that does not point to a folder containing the class
+ * the working directory is searched. Each working directory is indexed once per JVM (using a parallel walk that skips
+ * vcs folders and non class trees below target) and results are memoized per working directory and package. If a class
+ * exists below several roots, target/test-classes wins, then the shortest path.
+ *
+ * Replaces crawling with {@link FileTailImpl} for every probe.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ClassRootLocator
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ClassRootLocator.class );
+
+    private static final Set<String> PRUNED = new HashSet<String>( Arrays.asList(
+        ".git", ".svn", ".hg", ".bzr", "CVS", ".idea", ".settings", "node_modules"
+    )
+    );
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Roots ending with target/test-classes first, then shorter paths, then by name.
+     */
+    private static final Comparator<String> ROOT_ORDER = new Comparator<String>()
+    {
+        public int compare( String a, String b )
+        {
+            boolean testA = a.endsWith( "/target/test-classes/" );
+            boolean testB = b.endsWith( "/target/test-classes/" );
+            if( testA != testB )
+            {
+                return testA ? -1 : 1;
+            }
+            if( a.length() != b.length() )
+            {
+                return a.length() - b.length();
+            }
+            return a.compareTo( b );
+        }
+    };
+
+    private static final Map<String, File> s_rootByPackage = new ConcurrentHashMap<String, File>();
+
+    private static final Map<File, Map<String, List<File>>> s_index = new HashMap<File, Map<String, List<File>>>();
+
+    private ClassRootLocator()
+    {
+        // utility class
+    }
+
+    /**
+     * @param anchor class to find the root folder for.
+     *
+     * @return root folder so that new File( root, "org/foo/Anchor.class" ) exists.
+     *
+     * @throws IOException if there is a problem while indexing the working directory.
+     */
+    public static File locate( Class anchor )
+        throws IOException
+    {
+        NullArgumentException.validateNotNull( anchor, "anchor" );
+        String tail = anchor.getName().replace( '.', '/' ) + CLASS_SUFFIX;
+
+        File root = fromCodeSource( anchor, tail );
+        if( root != null )
+        {
+            return root;
+        }
+
+        File workingDir = new File( "." ).getCanonicalFile();
+        String pkg = workingDir + "!" + packageOf( anchor );
+        root = s_rootByPackage.get( pkg );
+        if( root != null && new File( root, tail ).isFile() )
+        {
+            return root;
+        }
+
+        root = findRoot( index( workingDir ), tail );
+        if( root == null )
+        {
+            throw new IllegalArgumentException(
+                "topLevelDir " + workingDir.getAbsolutePath() + "  does not contain a tail " + tail
+            );
+        }
+        LOG.debug( "Found root " + root + " for " + anchor.getName() + " in index of " + workingDir );
+        s_rootByPackage.put( pkg, root );
+        return root;
+    }
+
+    private static File fromCodeSource( Class anchor, String tail )
+    {
+        try
+        {
+            ProtectionDomain domain = anchor.getProtectionDomain();
+            CodeSource source = domain == null ? null : domain.getCodeSource();
+            URL location = source == null ? null : source.getLocation();
+            if( location != null && "file".equals( location.getProtocol() ) )
+            {
+                File root = new File( location.toURI() );
+                if( root.isDirectory() && new File( root, tail ).isFile() )
+                {
+                    return root;
+                }
+            }
+        } catch( SecurityException e )
+        {
+            LOG.debug( "No access to protection domain of " + anchor.getName() );
+        } catch( URISyntaxException e )
+        {
+            LOG.debug( "Invalid code source location of " + anchor.getName() );
+        } catch( IllegalArgumentException e )
+        {
+            LOG.debug( "Code source location of " + anchor.getName() + " is not a file." );
+        }
+        return null;
+    }
+
+    private static String packageOf( Class anchor )
+    {
+        String name = anchor.getName();
+        int idx = name.lastIndexOf( '.' );
+        return idx < 0 ? "" : name.substring( 0, idx );
+    }
+
+    private static synchronized Map<String, List<File>> index( File workingDir )
+    {
+        Map<String, List<File>> index = s_index.get( workingDir );
+        if( index == null )
+        {
+            long start = System.currentTimeMillis();
+            index = buildIndex( workingDir );
+            s_index.put( workingDir, index );
+            LOG.debug( "Indexed class files below " + workingDir + " in " + ( System.currentTimeMillis() - start )
+                       + " ms."
+            );
+        }
+        return index;
+    }
+
+    /**
+     * @param index as built by {@link #buildIndex(java.io.File)}
+     * @param tail  relative path of a class file like org/foo/Bar.class
+     *
+     * @return root folder of tail or null. The same for every walk of the same tree, see {@link #ROOT_ORDER}.
+     */
+    static File findRoot( Map<String, List<File>> index, String tail )
+    {
+        String name = tail.substring( tail.lastIndexOf( '/' ) + 1 );
+        List<File> candidates = index.get( name );
+        if( candidates == null )
+        {
+            return null;
+        }
+        List<String> roots = new ArrayList<String>();
+        for( File candidate : candidates )
+        {
+            String path = candidate.getAbsolutePath().replace( File.separatorChar, '/' );
+            if( path.endsWith( "/" + tail ) )
+            {
+                roots.add( path.substring( 0, path.length() - tail.length() ) );
+            }
+        }
+        if( roots.isEmpty() )
+        {
+            return null;
+        }
+        // the parallel walk finds candidates in any order
+        Collections.sort( roots, ROOT_ORDER );
+        return new File( roots.get( 0 ) );
+    }
+
+    /**
+     * Walks root in parallel and indexes all class files by their file name.
+     *
+     * @param root folder to walk.
+     *
+     * @return class files by file name.
+     */
+    static Map<String, List<File>> buildIndex( File root )
+    {
+        ExecutorService pool = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new ThreadFactory()
+        {
+            public Thread newThread( Runnable r )
+            {
+                Thread t = new Thread( r, "pax-exam-class-index" );
+                t.setDaemon( true );
+                return t;
+            }
+        }
+        );
+        Walker walker = new Walker( pool );
+        try
+        {
+            walker.submit( root );
+            walker.await();
+        } catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while indexing " + root, e );
+        } finally
+        {
+            pool.shutdownNow();
+        }
+
+        Map<String, List<File>> index = new ConcurrentHashMap<String, List<File>>();
+        for( File f : walker.m_found )
+        {
+            List<File> list = index.get( f.getName() );
+            if( list == null )
+            {
+                list = new ArrayList<File>( 1 );
+                index.put( f.getName(), list );
+            }
+            list.add( f );
+        }
+        return index;
+    }
+
+    /**
+     * Skips vcs/ide folders, hidden folders and anything below target that is not a classes folder.
+     */
+    private static boolean isPruned( File parent, File dir )
+    {
+        String name = dir.getName();
+        if( PRUNED.contains( name ) || dir.isHidden() )
+        {
+            return true;
+        }
+        return "target".equals( parent.getName() ) && !name.endsWith( "classes" );
+    }
+
+    /**
+     * Lists every folder in its own task and collects class files.
+     */
+    private static class Walker
+    {
+
+        private final ExecutorService m_pool;
+        private final Queue<File> m_found = new ConcurrentLinkedQueue<File>();
+        private final AtomicInteger m_pending = new AtomicInteger();
+        private final CountDownLatch m_done = new CountDownLatch( 1 );
+
+        Walker( ExecutorService pool )
+        {
+            m_pool = pool;
+        }
+
+        void submit( final File dir )
+        {
+            m_pending.incrementAndGet();
+            m_pool.execute( new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        scan( dir );
+                    } finally
+                    {
+                        if( m_pending.decrementAndGet() == 0 )
+                        {
+                            m_done.countDown();
+                        }
+                    }
+                }
+            }
+            );
+        }
+
+        void await()
+            throws InterruptedException
+        {
+            m_done.await();
+        }
+
+        private void scan( File dir )
+        {
+            File[] files = dir.listFiles();
+            if( files == null )
+            {
+                return;
+            }
+            for( File f : files )
+            {
+                if( f.isDirectory() )
+                {
+                    if( !isPruned( dir, f ) )
+                    {
+                        submit( f );
+                    }
+                }
+                else if( f.getName().endsWith( CLASS_SUFFIX ) )
+                {
+                    m_found.add( f );
+                }
+            }
+        }
+    }
+}
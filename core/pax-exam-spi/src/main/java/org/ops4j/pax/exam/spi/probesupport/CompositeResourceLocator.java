@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import org.ops4j.lang.NullArgumentException;
+
+/**
+ * Writes the resources of several locators into one jar, in order. If locators provide the same entry the first one
+ * wins (given the target omits duplicates like {@link org.ops4j.pax.exam.spi.container.DuplicateAwareJarOutputStream}).
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class CompositeResourceLocator implements ResourceLocator
+{
+
+    private final List<ResourceLocator> m_locators;
+
+    public CompositeResourceLocator( List<ResourceLocator> locators )
+    {
+        NullArgumentException.validateNotNull( locators, "locators" );
+        m_locators = locators;
+    }
+
+    public void write( JarOutputStream jos )
+        throws IOException
+    {
+        for( ResourceLocator locator : m_locators )
+        {
+            locator.write( jos );
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Small helper around a SHA-1 {@link MessageDigest} used to derive stable keys out of probe inputs.
+ * Every value is prefixed with its length, so no sequence of values digests like another one (like "ab","c" and
+ * "a","bc"). Not thread safe, use one instance per key computation.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContentDigest
+{
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Streams are digested in blocks of this size, each prefixed with its length. A shorter block ends the stream.
+     */
+    private static final int BLOCK = 8192;
+
+    private final MessageDigest m_digest;
+
+    public ContentDigest()
+    {
+        try
+        {
+            m_digest = MessageDigest.getInstance( "SHA-1" );
+        } catch( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "SHA-1 is not available on this platform.", e );
+        }
+    }
+
+    public ContentDigest update( String s )
+    {
+        try
+        {
+            byte[] bytes = s.getBytes( "UTF-8" );
+            return update( bytes, 0, bytes.length );
+        } catch( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    public ContentDigest update( byte[] bytes, int offset, int length )
+    {
+        updateLength( length );
+        m_digest.update( bytes, offset, length );
+        return this;
+    }
+
+    public ContentDigest update( InputStream in )
+        throws IOException
+    {
+        byte[] buffer = new byte[BLOCK];
+        int filled;
+        do
+        {
+            // blocks are filled completely, so the digest does not depend on how the stream splits its reads
+            filled = 0;
+            int read;
+            while( filled < BLOCK && ( read = in.read( buffer, filled, BLOCK - filled ) ) != -1 )
+            {
+                filled += read;
+            }
+            update( buffer, 0, filled );
+        }
+        while( filled == BLOCK );
+        return this;
+    }
+
+    private void updateLength( long length )
+    {
+        for( int shift = 56; shift >= 0; shift -= 8 )
+        {
+            m_digest.update( (byte) ( length >>> shift ) );
+        }
+    }
+
+    /**
+     * Adds names and contents of all files below dir, except hidden files and folders, in a stable order.
+     * Names are taken relative to dir so the key does not depend on the location of a checkout.
+     *
+     * @param dir folder to digest recursively.
+     *
+     * @return this
+     *
+     * @throws IOException in case a file cannot be read.
+     */
+    public ContentDigest updateTree( File dir )
+        throws IOException
+    {
+        updateTree( dir, "" );
+        return this;
+    }
+
+    private void updateTree( File dir, String prefix )
+        throws IOException
+    {
+        File[] files = dir.listFiles();
+        if( files == null )
+        {
+            return;
+        }
+        Arrays.sort( files, new Comparator<File>()
+        {
+            public int compare( File a, File b )
+            {
+                return a.getName().compareTo( b.getName() );
+            }
+        }
+        );
+        for( File f : files )
+        {
+            if( f.isDirectory() )
+            {
+                // hidden folders (like vcs folders) are skipped by the resource writers as well
+                if( !f.isHidden() )
+                {
+                    updateTree( f, prefix + f.getName() + "/" );
+                }
+            }
+            else if( !f.isHidden() )
+            {
+                update( prefix + f.getName() );
+                FileInputStream fis = new FileInputStream( f );
+                try
+                {
+                    update( fis );
+                } finally
+                {
+                    fis.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return hex representation of the digest. Resets the underlying digest.
+     */
+    public String toHex()
+    {
+        return toHex( m_digest.digest() );
+    }
+
+    public static String toHex( byte[] bytes )
+    {
+        char[] out = new char[bytes.length * 2];
+        for( int i = 0; i < bytes.length; i++ )
+        {
+            out[ i * 2 ] = HEX[ ( bytes[ i ] >> 4 ) & 0xF ];
+            out[ i * 2 + 1 ] = HEX[ bytes[ i ] & 0xF ];
+        }
+        return new String( out );
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import org.osgi.framework.Constants;
+import org.ops4j.io.FileUtils;
+import org.ops4j.pax.exam.spi.reactors.ShutdownTasks;
+
+/**
+ * Turns a classes folder into an exploded probe bundle without copying or writing to it: the probe is a temporary
+ * folder that only holds a generated manifest, its Bundle-ClassPath references the classes folder in place as an
+ * external entry. This needs a framework that supports external class path entries (like Equinox).
+ *
+ * Probe folders are removed when the JVM exits, after the containers using them have been stopped.
+ *
+ * As there is no bnd analysis, the probe imports everything dynamically.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ExplodedProbe
+{
+
+    /**
+     * System property to install probes as exploded folders where the container supports it. (default: false)
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.probe.exploded";
+
+    private ExplodedProbe()
+    {
+        // utility class
+    }
+
+    /**
+     * @param base    classes folder, left as it is.
+     * @param headers probe headers (PaxExam-Executable and signatures).
+     *
+     * @return a new folder with a generated manifest that references base.
+     *
+     * @throws IOException if the probe folder cannot be written.
+     */
+    public static File explode( File base, Properties headers )
+        throws IOException
+    {
+        if( new File( base, JarFile.MANIFEST_NAME ).exists() )
+        {
+            throw new RuntimeException( "You have specified a " + JarFile.MANIFEST_NAME
+                                        + " in your probe bundle. Please make sure that you don't have it in your project's target folder. Otherwise it would lead to false assumptions and unexpected results."
+            );
+        }
+
+        final File folder = File.createTempFile( "pax-exam-probe", "" );
+        folder.delete();
+        ShutdownTasks.onCleanup( new Runnable()
+        {
+            public void run()
+            {
+                FileUtils.delete( folder );
+            }
+        }
+        );
+        writeManifest( new File( folder, JarFile.MANIFEST_NAME ), base, headers );
+        return folder;
+    }
+
+    private static void writeManifest( File file, File base, Properties headers )
+        throws IOException
+    {
+        Manifest manifest = new Manifest();
+        Attributes main = manifest.getMainAttributes();
+        main.put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        main.putValue( Constants.BUNDLE_MANIFESTVERSION, "2" );
+        main.putValue( Constants.BUNDLE_SYMBOLICNAME, "BuiltByDirUrlHandler" );
+        main.putValue( Constants.DYNAMICIMPORT_PACKAGE, "*" );
+        main.putValue( Constants.BUNDLE_CLASSPATH, "\"external:" + base.getCanonicalPath() + "\"" );
+        for( Object k : headers.keySet() )
+        {
+            main.putValue( (String) k, (String) headers.get( k ) );
+        }
+
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream( file );
+        try
+        {
+            manifest.write( out );
+        } finally
+        {
+            out.close();
+        }
+    }
+}
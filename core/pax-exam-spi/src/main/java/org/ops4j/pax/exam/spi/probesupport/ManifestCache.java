@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.raw.extender.Constants;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
+
+/**
+ * Remembers manifests computed by bnd so the analysis runs only once per distinct probe content.
+ *
+ * Probes of one test run usually contain the same classes and differ only in the PaxExam-* headers (executable list and
+ * signatures). Those headers are stripped before caching and patched into the cached manifest on later builds.
+ *
+ * Keys are digests over all non PaxExam-* instructions and all entry names and contents of the unprocessed jar except
+ * the probe index.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ManifestCache
+{
+
+    /**
+     * System property to switch on manifest caching. (default: false)
+     * Cached probes are rebuilt from the unprocessed jar and carry no Bnd-LastModified header.
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.probe.manifestCache";
+
+    private static final String PROBE_HEADER_PREFIX = "PaxExam-";
+
+    /**
+     * Build time added by bnd. Left out so equal probes are byte-identical.
+     */
+    private static final String BND_LAST_MODIFIED = "Bnd-LastModified";
+
+    private final Map<String, Manifest> m_manifests;
+
+    /**
+     * @param capacity maximum number of manifests to keep. Least recently used ones are dropped first.
+     */
+    public ManifestCache( final int capacity )
+    {
+        m_manifests = new LinkedHashMap<String, Manifest>( 16, 0.75f, true )
+        {
+
+            private static final long serialVersionUID = 1L;
+
+            protected boolean removeEldestEntry( Map.Entry<String, Manifest> eldest )
+            {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param jar          unprocessed jar as written by a {@link ResourceLocator}.
+     * @param instructions bnd instructions including probe headers.
+     *
+     * @return key to be used with {@link #get(String)} and {@link #put(String, Manifest)}.
+     *
+     * @throws IOException if jar cannot be read.
+     */
+    public String key( ProbeBuffer jar, Properties instructions )
+        throws IOException
+    {
+        ContentDigest digest = new ContentDigest();
+        for( Object k : new TreeSet<Object>( instructions.keySet() ) )
+        {
+            if( !isProbeHeader( k ) )
+            {
+                digest.update( k + "=" + instructions.get( k ) );
+            }
+        }
+        ZipInputStream zin = new ZipInputStream( jar.toInputStream() );
+        ZipEntry entry;
+        while( ( entry = zin.getNextEntry() ) != null )
+        {
+            // the index is probe specific like the headers and does not matter to bnd.
+            if( !Constants.PROBE_INDEX_RESOURCE.equals( entry.getName() ) )
+            {
+                digest.update( entry.getName() );
+                digest.update( zin );
+            }
+        }
+        return digest.toHex();
+    }
+
+    /**
+     * @param key as computed by {@link #key(ProbeBuffer, Properties)}
+     *
+     * @return a copy of the cached manifest (without probe headers) or null.
+     */
+    public synchronized Manifest get( String key )
+    {
+        Manifest m = m_manifests.get( key );
+        return m == null ? null : new Manifest( m );
+    }
+
+    /**
+     * @param key      as computed by {@link #key(ProbeBuffer, Properties)}
+     * @param manifest manifest computed by bnd. Probe headers are removed from the stored copy.
+     */
+    public synchronized void put( String key, Manifest manifest )
+    {
+        Manifest copy = new Manifest( manifest );
+        Iterator<Object> it = copy.getMainAttributes().keySet().iterator();
+        while( it.hasNext() )
+        {
+            Object header = it.next();
+            if( isProbeHeader( header ) || BND_LAST_MODIFIED.equalsIgnoreCase( header.toString() ) )
+            {
+                it.remove();
+            }
+        }
+        m_manifests.put( key, copy );
+    }
+
+    /**
+     * Creates the final bundle out of a cached manifest without running bnd.
+     *
+     * @param manifest     cached manifest as returned by {@link #get(String)}. Will be modified.
+     * @param instructions instructions to take the probe headers from.
+     * @param jar          unprocessed jar.
+     * @param method       {@link ZipEntry#DEFLATED} or {@link ZipEntry#STORED}
+     *
+     * @return the final bundle.
+     *
+     * @throws IOException if jar cannot be read.
+     */
+    public InputStream patch( Manifest manifest, Properties instructions, ProbeBuffer jar, int method )
+        throws IOException
+    {
+        Attributes main = manifest.getMainAttributes();
+        for( Object k : instructions.keySet() )
+        {
+            if( isProbeHeader( k ) )
+            {
+                main.put( new Attributes.Name( (String) k ), instructions.get( k ) );
+            }
+        }
+
+        ProbeBuffer out = new ProbeBuffer( jar.size() + 4096 );
+        JarOutputStream jos = new ParallelJarOutputStream( out, manifest, method );
+        ZipInputStream zin = new ZipInputStream( jar.toInputStream() );
+        ZipEntry entry;
+        while( ( entry = zin.getNextEntry() ) != null )
+        {
+            if( !JarFile.MANIFEST_NAME.equalsIgnoreCase( entry.getName() ) )
+            {
+                ZipEntry copy = new ZipEntry( entry.getName() );
+                copy.setTime( ParallelJarOutputStream.ENTRY_TIME );
+                jos.putNextEntry( copy );
+                StreamUtils.copyStream( zin, jos, false );
+            }
+        }
+        jos.close();
+        return out.toInputStream();
+    }
+
+    /**
+     * @param bundle final bundle.
+     *
+     * @return manifest of bundle or null if it has none.
+     *
+     * @throws IOException if bundle cannot be read.
+     */
+    public static Manifest readManifest( ProbeBuffer bundle )
+        throws IOException
+    {
+        JarInputStream jin = new JarInputStream( new ByteArrayInputStream( bundle.getBuffer(), 0, bundle.size() ) );
+        try
+        {
+            return jin.getManifest();
+        } finally
+        {
+            jin.close();
+        }
+    }
+
+    private static boolean isProbeHeader( Object key )
+    {
+        return key.toString().startsWith( PROBE_HEADER_PREFIX );
+    }
+}
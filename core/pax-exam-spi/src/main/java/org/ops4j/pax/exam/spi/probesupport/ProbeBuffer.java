@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * Growable in-memory buffer the probe jar is assembled in.
+ * Other than {@link ByteArrayOutputStream#toByteArray()}, {@link #toInputStream()} does not copy the content.
+ *
+ * Initial capacity follows a moving average of the probe sizes built in this JVM so usual probes are written without
+ * re-allocating the underlying array. A single large probe neither pins a large capacity for all later probes nor
+ * raises it beyond {@link #MAX_CAPACITY}.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeBuffer extends ByteArrayOutputStream
+{
+
+    private static final int MIN_CAPACITY = 64 * 1024;
+
+    static final int MAX_CAPACITY = 8 * 1024 * 1024;
+
+    /**
+     * Moving average of probe sizes, each new size weighs a quarter.
+     */
+    private static int s_average = MIN_CAPACITY;
+
+    public ProbeBuffer()
+    {
+        super( capacity() );
+    }
+
+    public ProbeBuffer( int capacity )
+    {
+        super( capacity );
+    }
+
+    /**
+     * @return a view on the content written so far. Later writes to this buffer are not reflected.
+     */
+    public synchronized InputStream toInputStream()
+    {
+        return new ByteArrayInputStream( buf, 0, count );
+    }
+
+    /**
+     * Records the size of a probe built in this JVM, once per probe.
+     *
+     * @param size of the unprocessed probe jar
+     */
+    static synchronized void built( int size )
+    {
+        s_average = (int) ( ( 3L * s_average + size ) / 4 );
+    }
+
+    /**
+     * @return initial capacity for the next probe.
+     */
+    static synchronized int capacity()
+    {
+        return (int) Math.min( MAX_CAPACITY, Math.max( MIN_CAPACITY, s_average + s_average / 4L ) );
+    }
+
+    /**
+     * @return the underlying array. Only the first {@link #size()} bytes are valid.
+     */
+    public synchronized byte[] getBuffer()
+    {
+        return buf;
+    }
+}
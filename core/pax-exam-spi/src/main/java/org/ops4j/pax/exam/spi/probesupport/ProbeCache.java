@@ -0,0 +1,338 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.lang.NullArgumentException;
+import org.ops4j.pax.exam.Info;
+import org.ops4j.pax.swissbox.bnd.BndUtils;
+
+/**
+ * Content addressed on-disk store of built probes.
+ * Keys are derived from the probe content (classes and resources) plus the probe headers, so a hit can be returned
+ * without running the bundle builder (and bnd) again.
+ *
+ * Keys also cover the versions of Pax Exam and bnd, as a new version may build a different probe from the same content.
+ *
+ * Stale entries are evicted by age and by total size of the cache folder (oldest first).
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeCache
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ProbeCache.class );
+
+    /**
+     * Versions of the code that builds probes.
+     */
+    private static final String BUILDER = "pax-exam:" + versionOf( ProbeCache.class, Info.getPaxExamVersion() )
+                                          + ";bnd:" + versionOf( BndUtils.class, implementationVersion( BndUtils.class ) );
+
+    /**
+     * System property to switch the probe cache on. (default: false)
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.probe.cache";
+    /**
+     * System property to set the cache folder. (default: ${java.io.tmpdir}/pax-exam-probes)
+     */
+    public static final String FOLDER = "org.ops4j.pax.exam.probe.cache.dir";
+    /**
+     * System property to set the maximum size of all cached probes in bytes. (default: 256MB)
+     */
+    public static final String MAX_SIZE = "org.ops4j.pax.exam.probe.cache.maxSize";
+    /**
+     * System property to set the maximum age of a cached probe in millis (default: 7 days)
+     */
+    public static final String MAX_AGE = "org.ops4j.pax.exam.probe.cache.maxAge";
+
+    private static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+    private static final long DEFAULT_MAX_AGE = 7L * 24 * 60 * 60 * 1000;
+    private static final String SUFFIX = ".jar";
+
+    private final File m_folder;
+    private final long m_maxSize;
+    private final long m_maxAge;
+
+    public ProbeCache( File folder, long maxSize, long maxAge )
+    {
+        NullArgumentException.validateNotNull( folder, "folder" );
+        m_folder = folder;
+        m_maxSize = maxSize;
+        m_maxAge = maxAge;
+    }
+
+    /**
+     * @return a cache configured by system properties or null if caching has not been enabled.
+     */
+    public static ProbeCache fromSystemProperties()
+    {
+        if( !Boolean.getBoolean( ENABLED ) )
+        {
+            return null;
+        }
+        String folder = System.getProperty( FOLDER );
+        if( folder == null )
+        {
+            folder = System.getProperty( "java.io.tmpdir" ) + File.separator + "pax-exam-probes";
+        }
+        return new ProbeCache(
+            new File( folder ),
+            Long.getLong( MAX_SIZE, DEFAULT_MAX_SIZE ),
+            Long.getLong( MAX_AGE, DEFAULT_MAX_AGE )
+        );
+    }
+
+    private static String implementationVersion( Class c )
+    {
+        Package p = c.getPackage();
+        return p == null || p.getImplementationVersion() == null ? "" : p.getImplementationVersion();
+    }
+
+    /**
+     * @return version if it is a release, otherwise the jar c has been loaded from (its name usually carries the
+     *         version) with its modification time, which also changes with every snapshot build.
+     */
+    private static String versionOf( Class c, String version )
+    {
+        if( version.length() > 0 && !version.endsWith( "SNAPSHOT" ) )
+        {
+            return version;
+        }
+        try
+        {
+            CodeSource source = c.getProtectionDomain().getCodeSource();
+            if( source != null && source.getLocation() != null )
+            {
+                File f = new File( source.getLocation().toURI() );
+                return f.getPath() + "@" + f.lastModified();
+            }
+        } catch( Exception e )
+        {
+            LOG.debug( "Cannot locate " + c.getName() + ": " + e.getMessage() );
+        }
+        return "";
+    }
+
+    /**
+     * Computes the key of a probe.
+     *
+     * @param base    root of all classes and resources that go into the probe.
+     * @param headers probe headers (PaxExam-Executable and signatures).
+     *
+     * @return key to be used with {@link #load(String)} and {@link #store(String, InputStream)}.
+     *
+     * @throws IOException if the probe content cannot be read.
+     */
+    public String key( File base, Properties headers )
+        throws IOException
+    {
+        return key( base, headers, "" );
+    }
+
+    /**
+     * Computes the key of a probe built in a certain mode.
+     *
+     * @param base    root of all classes and resources that go into the probe.
+     * @param headers probe headers (PaxExam-Executable and signatures).
+     * @param variant describes how the probe content is selected from base (like slimming settings).
+     *
+     * @return key to be used with {@link #load(String)} and {@link #store(String, InputStream)}.
+     *
+     * @throws IOException if the probe content cannot be read.
+     */
+    public String key( File base, Properties headers, String variant )
+        throws IOException
+    {
+        return key( Collections.singletonList( base ), headers, variant );
+    }
+
+    /**
+     * Computes the key of a probe built out of several roots (merged probes).
+     *
+     * @param bases   roots of all classes and resources that go into the probe.
+     * @param headers probe headers (PaxExam-Executable and signatures).
+     * @param variant describes how the probe content is selected from bases (like slimming settings).
+     *
+     * @return key to be used with {@link #load(String)} and {@link #store(String, InputStream)}.
+     *
+     * @throws IOException if the probe content cannot be read.
+     */
+    public String key( List<File> bases, Properties headers, String variant )
+        throws IOException
+    {
+        ContentDigest digest = new ContentDigest();
+        digest.update( BUILDER );
+        digest.update( variant );
+        for( Object k : new TreeSet<Object>( headers.keySet() ) )
+        {
+            digest.update( k + "=" + headers.get( k ) );
+        }
+        for( File base : bases )
+        {
+            digest.updateTree( base );
+        }
+        return digest.toHex();
+    }
+
+    /**
+     * @param key as computed by {@link #key(java.io.File, java.util.Properties)}
+     *
+     * @return the cached probe or null if there is none.
+     */
+    public InputStream load( String key )
+    {
+        File f = file( key );
+        if( !f.isFile() )
+        {
+            return null;
+        }
+        // mark as recently used so age based eviction keeps it.
+        f.setLastModified( System.currentTimeMillis() );
+        try
+        {
+            LOG.debug( "Probe cache hit for " + key );
+            return new FileInputStream( f );
+        } catch( FileNotFoundException e )
+        {
+            // evicted concurrently.
+            return null;
+        }
+    }
+
+    /**
+     * Stores the probe content under key.
+     *
+     * @param key   as computed by {@link #key(java.io.File, java.util.Properties)}
+     * @param probe content. Will be fully consumed and closed.
+     *
+     * @return stream on the stored probe.
+     *
+     * @throws IOException if the probe cannot be written to the cache folder.
+     */
+    public InputStream store( String key, InputStream probe )
+        throws IOException
+    {
+        if( !m_folder.isDirectory() && !m_folder.mkdirs() )
+        {
+            throw new IOException( "Cannot create probe cache folder " + m_folder.getAbsolutePath() );
+        }
+        File target = file( key );
+        // write into a temp file first so concurrent builds never see half written probes.
+        File tmp = File.createTempFile( "probe-" + key, ".tmp", m_folder );
+        try
+        {
+            FileOutputStream out = new FileOutputStream( tmp );
+            try
+            {
+                StreamUtils.copyStream( probe, out, false );
+            } finally
+            {
+                out.close();
+                probe.close();
+            }
+            if( !tmp.renameTo( target ) && !target.isFile() )
+            {
+                throw new IOException( "Cannot move " + tmp + " to " + target );
+            }
+        } finally
+        {
+            tmp.delete();
+        }
+        LOG.debug( "Stored probe " + key + " in cache " + m_folder );
+        // open before evicting so an oversized probe is still handed out once.
+        InputStream stored = new FileInputStream( target );
+        evict();
+        return stored;
+    }
+
+    /**
+     * Removes entries older than max age and afterwards the oldest entries until the cache fits into max size.
+     */
+    public void evict()
+    {
+        File[] entries = m_folder.listFiles( new FilenameFilter()
+        {
+            public boolean accept( File dir, String name )
+            {
+                return name.endsWith( SUFFIX );
+            }
+        }
+        );
+        if( entries == null )
+        {
+            return;
+        }
+        Arrays.sort( entries, new Comparator<File>()
+        {
+            public int compare( File a, File b )
+            {
+                long diff = b.lastModified() - a.lastModified();
+                return diff > 0 ? 1 : ( diff < 0 ? -1 : 0 );
+            }
+        }
+        );
+        // newest first
+        long now = System.currentTimeMillis();
+        long size = 0;
+        for( File entry : entries )
+        {
+            if( now - entry.lastModified() > m_maxAge || size + entry.length() > m_maxSize )
+            {
+                LOG.debug( "Evicting cached probe " + entry.getName() );
+                entry.delete();
+            }
+            else
+            {
+                size += entry.length();
+            }
+        }
+    }
+
+    private File file( String key )
+    {
+        return new File( m_folder, key + SUFFIX );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ProbeCache{" +
+               "m_folder=" + m_folder +
+               ", m_maxSize=" + m_maxSize +
+               ", m_maxAge=" + m_maxAge +
+               '}';
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.ops4j.lang.NullArgumentException;
+import org.ops4j.pax.exam.raw.extender.Constants;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
+
+/**
+ * Writes the probe index ({@link Constants#PROBE_INDEX_RESOURCE}) that maps signatures to instructions.
+ * The index is a properties file the extender loads with one lookup, instead of one manifest header per test.
+ *
+ * Lines are written in the order of tests, without a date comment, so equal probes get equal bytes.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeIndexWriter implements ResourceLocator
+{
+
+    private final List<TestAddress> m_tests;
+
+    public ProbeIndexWriter( List<TestAddress> tests )
+    {
+        NullArgumentException.validateNotNull( tests, "tests" );
+        m_tests = tests;
+    }
+
+    /**
+     * @return the index as it will be read by the extender.
+     */
+    public Properties getIndex()
+    {
+        Properties index = new Properties();
+        for( TestAddress call : m_tests )
+        {
+            index.setProperty( call.signature(), call.getInstruction() );
+        }
+        return index;
+    }
+
+    public void write( JarOutputStream jos )
+        throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        for( TestAddress call : m_tests )
+        {
+            escape( call.signature(), sb );
+            sb.append( '=' );
+            escape( call.getInstruction(), sb );
+            sb.append( '\n' );
+        }
+        JarEntry entry = new JarEntry( Constants.PROBE_INDEX_RESOURCE );
+        entry.setTime( ParallelJarOutputStream.ENTRY_TIME );
+        jos.putNextEntry( entry );
+        jos.write( sb.toString().getBytes( "ISO-8859-1" ) );
+        jos.closeEntry();
+    }
+
+    /**
+     * Escapes like {@link Properties#store(java.io.OutputStream, String)} does.
+     */
+    private static void escape( String s, StringBuilder sb )
+    {
+        for( int i = 0; i < s.length(); i++ )
+        {
+            char c = s.charAt( i );
+            if( c == '\\' || c == '=' || c == ':' || c == '#' || c == '!' || c == ' ' )
+            {
+                sb.append( '\\' ).append( c );
+            }
+            else if( c < 0x20 || c > 0x7e )
+            {
+                sb.append( String.format( "\\u%04x", (int) c ) );
+            }
+            else
+            {
+                sb.append( c );
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.spi.TestProbeBuilder;
+
+/**
+ * Combines probes so that all tests of a reactor get installed as one bundle with a unified PaxExam-Executable header.
+ * That makes install cost independent of the number of test classes sharing a configuration.
+ *
+ * Only probes built by {@link TestProbeBuilderImpl} can be merged. Others are passed through unchanged.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeMerger
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ProbeMerger.class );
+
+    /**
+     * System property to switch off probe merging. (default: true)
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.probe.merge";
+
+    private ProbeMerger()
+    {
+        // utility class
+    }
+
+    /**
+     * @param probes probes to merge. Not modified.
+     *
+     * @return merged probes (at most one of type {@link TestProbeBuilderImpl}) followed by the unmergable ones.
+     */
+    public static List<TestProbeBuilder> merge( List<TestProbeBuilder> probes )
+    {
+        List<TestProbeBuilderImpl> mergable = new ArrayList<TestProbeBuilderImpl>();
+        List<TestProbeBuilder> others = new ArrayList<TestProbeBuilder>();
+        for( TestProbeBuilder probe : probes )
+        {
+            if( probe instanceof TestProbeBuilderImpl )
+            {
+                mergable.add( (TestProbeBuilderImpl) probe );
+            }
+            else
+            {
+                others.add( probe );
+            }
+        }
+        if( mergable.size() < 2 )
+        {
+            return new ArrayList<TestProbeBuilder>( probes );
+        }
+
+        TestProbeBuilderImpl merged = new TestProbeBuilderImpl();
+        merged.setAnchor( mergable.get( 0 ).getAnchor() );
+        for( TestProbeBuilderImpl probe : mergable )
+        {
+            merged.merge( probe );
+        }
+        LOG.debug( "Merged " + mergable.size() + " probes into one with " + merged.getTests().length + " tests." );
+
+        List<TestProbeBuilder> result = new ArrayList<TestProbeBuilder>();
+        result.add( merged );
+        result.addAll( others );
+        return result;
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.lang.NullArgumentException;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
+
+/**
+ * Writes only those classes below base that are reachable from a set of root classes (following constant pool
+ * references, see {@link ClassReferences}) plus resources matching a set of patterns.
+ *
+ * Patterns are ant like: "*" matches within a path segment, "**" matches any number of segments.
+ * Without patterns all non class resources are written.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ReachableResourceWriter implements ResourceLocator
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ReachableResourceWriter.class );
+
+    /**
+     * System property to switch on reachability based probe slimming. (default: false)
+     */
+    public static final String ENABLED = "org.ops4j.pax.exam.probe.slim";
+    /**
+     * System property with comma separated patterns of resources to keep in a slim probe. (default: all resources)
+     */
+    public static final String RESOURCES = "org.ops4j.pax.exam.probe.slim.resources";
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final File m_base;
+    private final Collection<String> m_roots;
+    private final List<Pattern> m_resources;
+
+    /**
+     * @param base      folder to take classes and resources from.
+     * @param roots     fully qualified names of classes to start from.
+     * @param resources resource patterns to keep. If empty, all resources are kept.
+     */
+    public ReachableResourceWriter( File base, Collection<String> roots, Collection<String> resources )
+    {
+        NullArgumentException.validateNotNull( base, "base" );
+        NullArgumentException.validateNotNull( roots, "roots" );
+        m_base = base;
+        m_roots = roots;
+        m_resources = new ArrayList<Pattern>();
+        if( resources != null )
+        {
+            for( String r : resources )
+            {
+                m_resources.add( toRegex( r ) );
+            }
+        }
+    }
+
+    /**
+     * @return patterns configured with {@link #RESOURCES} or an empty list.
+     */
+    public static List<String> resourcesFromSystemProperties()
+    {
+        List<String> result = new ArrayList<String>();
+        String value = System.getProperty( RESOURCES );
+        if( value != null )
+        {
+            for( String s : value.split( "," ) )
+            {
+                if( s.trim().length() > 0 )
+                {
+                    result.add( s.trim() );
+                }
+            }
+        }
+        return result;
+    }
+
+    public void write( JarOutputStream target )
+        throws IOException
+    {
+        NullArgumentException.validateNotNull( target, "target" );
+
+        Map<String, File> all = new TreeMap<String, File>();
+        list( m_base, "", all );
+
+        Set<String> selected = new TreeSet<String>( reachableClasses( all ) );
+        for( String name : all.keySet() )
+        {
+            if( !name.endsWith( CLASS_SUFFIX ) && isResourceIncluded( name ) )
+            {
+                selected.add( name );
+            }
+        }
+
+        long totalBytes = 0;
+        long writtenBytes = 0;
+        for( Map.Entry<String, File> entry : all.entrySet() )
+        {
+            long size = entry.getValue().length();
+            totalBytes += size;
+            if( selected.contains( entry.getKey() ) )
+            {
+                writtenBytes += size;
+                writeToTarget( target, entry.getKey(), entry.getValue() );
+            }
+        }
+
+        long removed = totalBytes - writtenBytes;
+        LOG.info( "Slim probe: wrote " + selected.size() + " of " + all.size() + " files, removed "
+                  + ( all.size() - selected.size() ) + " files (" + removed + " of " + totalBytes + " bytes, "
+                  + ( totalBytes == 0 ? 0 : removed * 100 / totalBytes ) + "% reduction)."
+        );
+    }
+
+    /**
+     * Breadth first walk over class files referenced by the roots.
+     *
+     * @param all all files below base by relative name.
+     *
+     * @return relative names of reachable class files.
+     */
+    Set<String> reachableClasses( Map<String, File> all )
+        throws IOException
+    {
+        Set<String> reachable = new TreeSet<String>();
+        LinkedList<String> queue = new LinkedList<String>();
+        for( String root : m_roots )
+        {
+            queue.add( root.replace( '.', '/' ) );
+        }
+        while( !queue.isEmpty() )
+        {
+            String name = queue.removeFirst() + CLASS_SUFFIX;
+            File f = all.get( name );
+            if( f == null || !reachable.add( name ) )
+            {
+                continue;
+            }
+            FileInputStream fis = new FileInputStream( f );
+            try
+            {
+                queue.addAll( ClassReferences.read( fis ) );
+            } finally
+            {
+                fis.close();
+            }
+        }
+        return reachable;
+    }
+
+    private boolean isResourceIncluded( String name )
+    {
+        if( m_resources.isEmpty() )
+        {
+            return true;
+        }
+        for( Pattern p : m_resources )
+        {
+            if( p.matcher( name ).matches() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void list( File dir, String prefix, Map<String, File> result )
+    {
+        File[] files = dir.listFiles();
+        if( files == null )
+        {
+            return;
+        }
+        for( File f : files )
+        {
+            if( f.isDirectory() )
+            {
+                if( !f.isHidden() )
+                {
+                    list( f, prefix + f.getName() + "/", result );
+                }
+            }
+            else if( !f.isHidden() )
+            {
+                result.put( prefix + f.getName(), f );
+            }
+        }
+    }
+
+    private void writeToTarget( JarOutputStream target, String name, File f )
+        throws IOException
+    {
+        if( name.equals( "META-INF/MANIFEST.MF" ) )
+        {
+            throw new RuntimeException( "You have specified a " + name
+                                        + " in your probe bundle. Please make sure that you don't have it in your project's target folder. Otherwise it would lead to false assumptions and unexpected results."
+            );
+        }
+        FileInputStream fis = new FileInputStream( f );
+        try
+        {
+            JarEntry entry = new JarEntry( name );
+            entry.setTime( ParallelJarOutputStream.ENTRY_TIME );
+            target.putNextEntry( entry );
+            StreamUtils.copyStream( fis, target, false );
+        } finally
+        {
+            fis.close();
+        }
+    }
+
+    static Pattern toRegex( String pattern )
+    {
+        StringBuilder sb = new StringBuilder();
+        for( int i = 0; i < pattern.length(); i++ )
+        {
+            char c = pattern.charAt( i );
+            if( c == '*' )
+            {
+                if( i + 1 < pattern.length() && pattern.charAt( i + 1 ) == '*' )
+                {
+                    i++;
+                    if( i + 1 < pattern.length() && pattern.charAt( i + 1 ) == '/' )
+                    {
+                        // "**/" also matches no folder at all.
+                        i++;
+                        sb.append( "(?:.*/)?" );
+                    }
+                    else
+                    {
+                        sb.append( ".*" );
+                    }
+                }
+                else
+                {
+                    sb.append( "[^/]*" );
+                }
+            }
+            else if( c == '?' )
+            {
+                sb.append( "[^/]" );
+            }
+            else
+            {
+                sb.append( Pattern.quote( String.valueOf( c ) ) );
+            }
+        }
+        return Pattern.compile( sb.toString() );
+    }
+}
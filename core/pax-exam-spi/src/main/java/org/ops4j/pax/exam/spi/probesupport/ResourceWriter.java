@@ -9,6 +9,7 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import org.ops4j.io.StreamUtils;
 import org.ops4j.lang.NullArgumentException;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
 
 /**
  * @author Toni Menzel (tonit)
@@ -74,7 +75,10 @@ public class ResourceWriter implements ResourceLocator
             {
                 if( f.isDirectory() )
                 {
-                    findAndWriteResources( target, f );
+                    if( !f.isHidden() )
+                    {
+                        findAndWriteResources( target, f );
+                    }
                 }
                 else if( !f.isHidden() )
                 {
@@ -112,7 +116,9 @@ public class ResourceWriter implements ResourceLocator
     void write( String name, InputStream fileIn, JarOutputStream target )
         throws IOException
     {
-        target.putNextEntry( new JarEntry( name ) );
+        JarEntry entry = new JarEntry( name );
+        entry.setTime( ParallelJarOutputStream.ENTRY_TIME );
+        target.putNextEntry( entry );
         StreamUtils.copyStream( fileIn, target, false );
     }
 }
\ No newline at end of file
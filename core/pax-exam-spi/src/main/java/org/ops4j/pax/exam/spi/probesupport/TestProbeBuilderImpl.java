@@ -21,8 +21,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.TestContainerException;
+import org.ops4j.pax.exam.raw.extender.Constants;
+import org.ops4j.pax.exam.spi.ExplodedProbeProvider;
 import org.ops4j.pax.exam.spi.TestAddress;
 import org.ops4j.pax.exam.spi.TestProbeBuilder;
 import org.ops4j.pax.exam.spi.container.DefaultRaw;
@@ -35,13 +44,26 @@ import org.ops4j.store.StoreFactory;
  * @author Toni Menzel
  * @since Dec 2, 2009
  */
-public class TestProbeBuilderImpl implements TestProbeBuilder
+public class TestProbeBuilderImpl implements TestProbeBuilder, ExplodedProbeProvider
 {
 
+    private static Logger LOG = LoggerFactory.getLogger( TestProbeBuilderImpl.class );
+
     private List<TestAddress> m_probeCalls = new ArrayList<TestAddress>();
 
     private Class m_anchor;
 
+    /**
+     * Exploded probe of {@link #getFolder()} and the headers it was made with.
+     */
+    private File m_folder;
+    private Properties m_folderHeaders;
+
+    /**
+     * Anchors of probes merged into this one, see {@link #merge(TestProbeBuilderImpl)}.
+     */
+    private List<Class> m_mergedAnchors = new ArrayList<Class>();
+
     public TestProbeBuilder addTest( TestAddress... calls )
     {
         for( TestAddress call : calls )
@@ -68,6 +90,11 @@ public class TestProbeBuilderImpl implements TestProbeBuilder
         return this;
     }
 
+    Class getAnchor()
+    {
+        return m_anchor;
+    }
+
     public TestAddress[] getTests()
     {
         return m_probeCalls.toArray( new TestAddress[m_probeCalls.size()] );
@@ -76,21 +103,148 @@ public class TestProbeBuilderImpl implements TestProbeBuilder
     public InputStream getStream()
     {
 
+        // tests go into an index resource, the manifest only points to it.
         Properties p = new Properties();
-        constructProbeTag( p );
+        p.put( Constants.PROBE_INDEX, Constants.PROBE_INDEX_RESOURCE );
+        ProbeIndexWriter index = new ProbeIndexWriter( m_probeCalls );
 
         try
         {
-            String tail = m_anchor.getName().replace( ".", "/" ) + ".class";
-            File base = new FileTailImpl( new File( "." ), tail ).getParentOfTail();
-            return sink( new BundleBuilder( p, new ResourceWriter( base ) ).build() );
+            List<File> bases = getRoots();
+            boolean slim = Boolean.getBoolean( ReachableResourceWriter.ENABLED );
+            List<String> resources = ReachableResourceWriter.resourcesFromSystemProperties();
+            List<ResourceLocator> locators = new ArrayList<ResourceLocator>();
+            locators.add( index );
+            for( File base : bases )
+            {
+                locators.add( slim
+                              ? new ReachableResourceWriter( base, getTestClasses(), resources )
+                              : new ResourceWriter( base )
+                );
+            }
+            ResourceLocator locator = new CompositeResourceLocator( locators );
+
+            ProbeCache cache = ProbeCache.fromSystemProperties();
+            if( cache == null )
+            {
+                return sink( new BundleBuilder( p, locator ).build() );
+            }
+            Properties content = new Properties();
+            content.putAll( p );
+            content.putAll( index.getIndex() );
+            String key = cache.key( bases, content, slim ? "slim:" + resources : "" );
+            InputStream cached = cache.load( key );
+            if( cached != null )
+            {
+                LOG.debug( "Using cached probe " + key + " for anchor " + m_anchor.getName() );
+                return cached;
+            }
+            return cache.store( key, new BundleBuilder( p, locator ).build() );
+
+        } catch( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
 
+    public synchronized File getFolder()
+    {
+        Properties p = new Properties();
+        constructProbeTag( p );
+        try
+        {
+            List<File> bases = getRoots();
+            if( bases.size() != 1 )
+            {
+                return null;
+            }
+            // one probe folder per set of headers, not per container
+            if( m_folder == null || !p.equals( m_folderHeaders ) )
+            {
+                m_folder = ExplodedProbe.explode( bases.get( 0 ), p );
+                m_folderHeaders = p;
+            }
+            return m_folder;
         } catch( IOException e )
         {
             throw new RuntimeException( e );
         }
     }
 
+    /**
+     * Adds tests and anchor of other to this probe. Tests with a signature already known are skipped, a known signature
+     * of a different test is a hash collision between test classes and fails.
+     *
+     * @param other probe to merge into this one.
+     */
+    void merge( TestProbeBuilderImpl other )
+    {
+        Map<String, String> signatures = new HashMap<String, String>();
+        for( TestAddress call : m_probeCalls )
+        {
+            signatures.put( call.signature(), call.getInstruction() );
+        }
+        for( TestAddress call : other.m_probeCalls )
+        {
+            String known = signatures.get( call.signature() );
+            if( known == null )
+            {
+                signatures.put( call.signature(), call.getInstruction() );
+                m_probeCalls.add( call );
+            }
+            else if( !known.equals( call.getInstruction() ) )
+            {
+                throw new TestContainerException( "Signature " + call.signature() + " of " + call.getInstruction()
+                                                  + " is already used by " + known
+                );
+            }
+        }
+        List<Class> anchors = new ArrayList<Class>( other.m_mergedAnchors );
+        anchors.add( 0, other.m_anchor );
+        for( Class anchor : anchors )
+        {
+            if( anchor != null && anchor != m_anchor && !m_mergedAnchors.contains( anchor ) )
+            {
+                m_mergedAnchors.add( anchor );
+            }
+        }
+    }
+
+    /**
+     * @return distinct class roots of all anchors.
+     */
+    private List<File> getRoots()
+        throws IOException
+    {
+        Set<File> roots = new LinkedHashSet<File>();
+        roots.add( ClassRootLocator.locate( m_anchor ) );
+        for( Class anchor : m_mergedAnchors )
+        {
+            roots.add( ClassRootLocator.locate( anchor ) );
+        }
+        return new ArrayList<File>( roots );
+    }
+
+    /**
+     * @return names of the anchors and all classes named in test instructions ("class;method").
+     */
+    private Set<String> getTestClasses()
+    {
+        Set<String> classes = new LinkedHashSet<String>();
+        classes.add( m_anchor.getName() );
+        for( Class anchor : m_mergedAnchors )
+        {
+            classes.add( anchor.getName() );
+        }
+        for( TestAddress call : m_probeCalls )
+        {
+            String instruction = call.getInstruction();
+            int idx = instruction.indexOf( ';' );
+            classes.add( idx < 0 ? instruction : instruction.substring( 0, idx ) );
+        }
+        return classes;
+    }
+
     private InputStream sink( InputStream inputStream )
         throws IOException
     {
@@ -98,6 +252,10 @@ public class TestProbeBuilderImpl implements TestProbeBuilder
         return store.load( store.store( inputStream ) );
     }
 
+    /**
+     * Legacy format: one header per test plus PaxExam-Executable. Used for exploded probes where there is no jar to put
+     * the index into.
+     */
     private void constructProbeTag( Properties p )
     {
         // construct out of added Tests
@@ -109,6 +267,6 @@ public class TestProbeBuilderImpl implements TestProbeBuilder
             sbKeyChain.append( "," );
             p.put( call.signature(), call.getInstruction() );
         }
-        p.put( "PaxExam-Executable", sbKeyChain.toString() );
+        p.put( Constants.PROBE_EXECUTABLE, sbKeyChain.toString() );
     }
 }
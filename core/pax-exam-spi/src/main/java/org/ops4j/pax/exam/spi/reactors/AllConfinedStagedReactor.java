@@ -15,7 +15,12 @@
  */
 package org.ops4j.pax.exam.spi.reactors;
 
+import java.util.ArrayList;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.ops4j.pax.exam.Option;
@@ -25,19 +30,29 @@ import org.ops4j.pax.exam.TestContainerFactory;
 import org.ops4j.pax.exam.spi.TestAddress;
 import org.ops4j.pax.exam.spi.StagedExamReactor;
 import org.ops4j.pax.exam.spi.TestProbeBuilder;
-import org.ops4j.pax.exam.spi.container.DefaultRaw;
 
 /**
  * This will use new containers for any test (hence confined)
+ * <p/>
+ * With {@link #SPARES} set, containers of the configuration that runs next are booted and provisioned in the
+ * background while the current test runs. Each test still gets a container of its own.
  */
 public class AllConfinedStagedReactor implements StagedExamReactor
 {
 
     private static Logger LOG = LoggerFactory.getLogger( AllConfinedStagedReactor.class );
 
+    /**
+     * Number of provisioned containers kept ready for the configuration that runs next (default: 0, boot on demand).
+     */
+    public static final String SPARES = "org.ops4j.pax.exam.reactor.spares";
+
     final private List<Option[]> m_configs;
     final private List<TestProbeBuilder> m_probes;
     final private TestContainerFactory m_factory;
+    final private int m_spares;
+    final private BoundedExecutor m_booter;
+    final private List<LinkedList<Future<List<TestContainer>>>> m_ready;
 
     /**
      * @param mConfigurations
@@ -54,44 +69,146 @@ public class AllConfinedStagedReactor implements StagedExamReactor
             // fill in a default config
             m_configs.add( new Option[0] );
         }
+
+        m_spares = Math.max( 0, Integer.getInteger( SPARES, 0 ) );
+        m_booter = m_spares > 0 ? BoundedExecutor.background( m_spares, "pax-exam-spare" ) : null;
+        m_ready = new ArrayList<LinkedList<Future<List<TestContainer>>>>();
+        for( int i = 0; i < m_configs.size(); i++ )
+        {
+            m_ready.add( new LinkedList<Future<List<TestContainer>>>() );
+        }
+        // like without spares, only the first configuration is booted before the first test
+        replenish( 0 );
     }
 
     public void invoke( TestAddress call )
         throws Exception
     {
-        OptionPrinter printer = new OptionPrinter();
-
         LOG.debug( "Trying to invoke signature: " + call.signature() );
-        // create a container for each call:
-        for( Option[] option : m_configs )
+        // use a new container for each call:
+        for( int i = 0; i < m_configs.size(); i++ )
         {
-            OptionDescription[] runtimes = m_factory.parse( option );
-            for( OptionDescription s : runtimes )
+            List<TestContainer> runtimes = take( i );
+            // the configuration after this one, or the first one for the next test
+            replenish( ( i + 1 ) % m_configs.size() );
+            try
             {
-                TestContainer runtime = m_factory.createContainer( s );
+                for( TestContainer runtime : runtimes )
+                {
+                    TimedExecution.execute( runtime, call );
+                }
+            } finally
+            {
+                stop( runtimes );
+            }
+        }
+    }
 
-                printer.print( getClass().getName(), s, runtime.getClass());
-                runtime.start();
+    public void tearDown()
+    {
+        if( m_booter == null )
+        {
+            return;
+        }
+        m_booter.shutdown();
+        for( LinkedList<Future<List<TestContainer>>> ready : m_ready )
+        {
+            while( !ready.isEmpty() )
+            {
                 try
                 {
-                    for( TestProbeBuilder builder : m_probes )
-                    {
-                        LOG.debug( "installing probe " + builder );
-                        runtime.install( builder.getStream() );
-                    }
-                    DefaultRaw.execute( runtime, call );
-
-                } finally
+                    stop( ready.removeFirst().get() );
+                } catch( Exception e )
                 {
-                    runtime.stop();
+                    LOG.debug( "Spare container did not come up: " + e.getMessage() );
                 }
             }
+        }
+    }
 
+    /**
+     * @return provisioned containers for configuration at index, a spare if there is one.
+     */
+    private List<TestContainer> take( int index )
+        throws Exception
+    {
+        LinkedList<Future<List<TestContainer>>> ready = m_ready.get( index );
+        if( ready.isEmpty() )
+        {
+            return boot( m_configs.get( index ) );
+        }
+        try
+        {
+            return ready.removeFirst().get();
+        } catch( ExecutionException e )
+        {
+            if( e.getCause() instanceof Exception )
+            {
+                throw (Exception) e.getCause();
+            }
+            throw e;
         }
     }
 
-    public void tearDown()
+    private void replenish( final int index )
+    {
+        LinkedList<Future<List<TestContainer>>> ready = m_ready.get( index );
+        while( m_booter != null && ready.size() < m_spares )
+        {
+            ready.addLast( m_booter.submit( new Callable<List<TestContainer>>()
+            {
+                public List<TestContainer> call()
+                    throws Exception
+                {
+                    return boot( m_configs.get( index ) );
+                }
+            }
+            )
+            );
+        }
+    }
+
+    /**
+     * Creates, starts and provisions the containers of a configuration.
+     */
+    private List<TestContainer> boot( Option[] option )
     {
+        OptionPrinter printer = new OptionPrinter();
+        List<TestContainer> runtimes = new ArrayList<TestContainer>();
+        try
+        {
+            OptionDescription[] descriptions = m_factory.parse( option );
+            for( OptionDescription s : descriptions )
+            {
+                TestContainer runtime = m_factory.createContainer( s );
+
+                printer.print( getClass().getName(), s, runtime.getClass() );
+                runtimes.add( runtime );
+                runtime.start();
+                for( TestProbeBuilder builder : m_probes )
+                {
+                    ProbeInstaller.install( runtime, builder );
+                }
+            }
+        } catch( RuntimeException e )
+        {
+            stop( runtimes );
+            throw e;
+        }
+        return runtimes;
+    }
 
+    private void stop( List<TestContainer> runtimes )
+    {
+        for( TestContainer runtime : runtimes )
+        {
+            try
+            {
+                runtime.stop();
+            } catch( RuntimeException e )
+            {
+                LOG.warn( "Stopping " + runtime + " failed: " + e.getMessage() );
+            }
+        }
     }
 }
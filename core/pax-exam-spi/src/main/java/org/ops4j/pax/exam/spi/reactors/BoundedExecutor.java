@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs reactor tasks (like starting containers) on a bounded number of daemon threads.
+ * With a single thread, tasks run on the calling thread, one after another, exactly like before
+ * (unless created with {@link #background(int, String)}).
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class BoundedExecutor
+{
+
+    private final int m_threads;
+    private final ExecutorService m_pool;
+
+    /**
+     * @param threads maximum number of tasks running at the same time. Values below 1 are treated as 1.
+     * @param name    prefix for thread names.
+     */
+    public BoundedExecutor( int threads, final String name )
+    {
+        this( threads, name, true );
+    }
+
+    private BoundedExecutor( int threads, final String name, boolean inline )
+    {
+        m_threads = Math.max( 1, threads );
+        if( m_threads == 1 && inline )
+        {
+            m_pool = null;
+        }
+        else
+        {
+            final AtomicInteger count = new AtomicInteger();
+            m_pool = Executors.newFixedThreadPool( m_threads, new ThreadFactory()
+            {
+                public Thread newThread( Runnable r )
+                {
+                    Thread t = new Thread( r, name + "-" + count.incrementAndGet() );
+                    t.setDaemon( true );
+                    return t;
+                }
+            }
+            );
+        }
+    }
+
+    /**
+     * @param property system property to read the number of threads from.
+     * @param name     prefix for thread names.
+     *
+     * @return executor with as many threads as configured (default: 1)
+     */
+    public static BoundedExecutor fromSystemProperty( String property, String name )
+    {
+        return new BoundedExecutor( Integer.getInteger( property, 1 ), name );
+    }
+
+    /**
+     * @param threads maximum number of tasks running at the same time. Values below 1 are treated as 1.
+     * @param name    prefix for thread names.
+     *
+     * @return executor that never runs tasks on the calling thread, even with a single thread.
+     */
+    public static BoundedExecutor background( int threads, String name )
+    {
+        return new BoundedExecutor( threads, name, false );
+    }
+
+    public int getThreads()
+    {
+        return m_threads;
+    }
+
+    /**
+     * Runs all tasks and fails fast: after the first failure no further tasks are started. Tasks already running are
+     * waited for (not interrupted) so callers can clean up reliably afterwards.
+     *
+     * @param tasks tasks to run.
+     *
+     * @return results in the order of tasks.
+     *
+     * @throws Exception the failure of the first failing task.
+     */
+    public <T> List<T> invokeAll( List<? extends Callable<T>> tasks )
+        throws Exception
+    {
+        List<T> results = new ArrayList<T>( tasks.size() );
+        if( m_pool == null )
+        {
+            for( Callable<T> task : tasks )
+            {
+                results.add( task.call() );
+            }
+            return results;
+        }
+
+        CompletionService<T> completion = new ExecutorCompletionService<T>( m_pool );
+        List<Future<T>> futures = new ArrayList<Future<T>>( tasks.size() );
+        for( Callable<T> task : tasks )
+        {
+            futures.add( completion.submit( task ) );
+        }
+        Throwable failure = null;
+        for( int i = 0; i < futures.size() && failure == null; i++ )
+        {
+            try
+            {
+                completion.take().get();
+            } catch( ExecutionException e )
+            {
+                failure = e.getCause();
+            } catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                failure = e;
+            }
+        }
+        if( failure != null )
+        {
+            for( Future<T> f : futures )
+            {
+                f.cancel( false );
+            }
+            for( Future<T> f : futures )
+            {
+                awaitQuietly( f );
+            }
+            if( failure instanceof Exception )
+            {
+                throw (Exception) failure;
+            }
+            throw (Error) failure;
+        }
+        for( Future<T> f : futures )
+        {
+            results.add( f.get() );
+        }
+        return results;
+    }
+
+    /**
+     * Runs a task on this executor. With a single thread, the task is run right away on the calling thread.
+     *
+     * @param task task to run.
+     *
+     * @return future result of task.
+     */
+    public <T> Future<T> submit( Callable<T> task )
+    {
+        if( m_pool == null )
+        {
+            FutureTask<T> future = new FutureTask<T>( task );
+            future.run();
+            return future;
+        }
+        return m_pool.submit( task );
+    }
+
+    /**
+     * Lets running tasks finish but does not accept new ones.
+     */
+    public void shutdown()
+    {
+        if( m_pool != null )
+        {
+            m_pool.shutdown();
+        }
+    }
+
+    private static void awaitQuietly( Future<?> f )
+    {
+        try
+        {
+            f.get();
+        } catch( CancellationException e )
+        {
+            // never started
+        } catch( ExecutionException e )
+        {
+            // reported elsewhere or irrelevant after the first failure
+        } catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.OptionDescription;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.TestContainerFactory;
+
+/**
+ * Process wide pool of running containers, keyed by the {@link OptionFingerprint} of their configuration.
+ * A lease hands out started containers exclusively. When released, containers are cleaned up and kept running for the
+ * next lease with an identical configuration. Idle containers are stopped after {@link #IDLE_TIMEOUT} and at JVM
+ * shutdown.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContainerPool
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ContainerPool.class );
+
+    /**
+     * Milliseconds an unused container is kept running (default: 300000).
+     */
+    public static final String IDLE_TIMEOUT = "org.ops4j.pax.exam.pool.idleTimeout";
+
+    private static ContainerPool s_instance;
+
+    private final long m_idleTimeout;
+    private final Map<String, LinkedList<Lease>> m_idle = new HashMap<String, LinkedList<Lease>>();
+    private final Set<Lease> m_leased = new HashSet<Lease>();
+    private Timer m_reaper;
+
+    ContainerPool( long idleTimeout )
+    {
+        m_idleTimeout = idleTimeout;
+    }
+
+    /**
+     * @return the pool of this JVM.
+     */
+    public static synchronized ContainerPool getInstance()
+    {
+        if( s_instance == null )
+        {
+            final ContainerPool pool = new ContainerPool( Long.getLong( IDLE_TIMEOUT, 300000 ) );
+            ShutdownTasks.onStop( new Runnable()
+            {
+                public void run()
+                {
+                    pool.shutdown();
+                }
+            }
+            );
+            s_instance = pool;
+        }
+        return s_instance;
+    }
+
+    /**
+     * Leases started containers for a configuration. Reuses idle containers with the same fingerprint, or creates and
+     * starts new ones.
+     *
+     * @param factory factory used when new containers are needed.
+     * @param options configuration.
+     *
+     * @return lease, to be released when done.
+     */
+    public Lease lease( TestContainerFactory factory, Option[] options )
+    {
+        String key = factory.getClass().getName() + "@" + OptionFingerprint.of( options );
+        synchronized( this )
+        {
+            LinkedList<Lease> idle = m_idle.get( key );
+            if( idle != null && !idle.isEmpty() )
+            {
+                Lease lease = idle.removeFirst();
+                m_leased.add( lease );
+                LOG.debug( "Reusing containers for " + key );
+                return lease;
+            }
+        }
+
+        OptionPrinter printer = new OptionPrinter();
+        List<TestContainer> containers = new ArrayList<TestContainer>();
+        try
+        {
+            for( OptionDescription description : factory.parse( options ) )
+            {
+                TestContainer container = factory.createContainer( description );
+                printer.print( getClass().getName(), description, container.getClass() );
+                containers.add( container );
+                container.start();
+            }
+        } catch( RuntimeException e )
+        {
+            for( TestContainer container : containers )
+            {
+                stopQuietly( container );
+            }
+            throw e;
+        }
+        Lease lease = new Lease( key, containers.toArray( new TestContainer[containers.size()] ) );
+        synchronized( this )
+        {
+            m_leased.add( lease );
+        }
+        LOG.debug( "Started " + containers.size() + " container(s) for " + key );
+        return lease;
+    }
+
+    /**
+     * Returns containers to the pool after cleaning them up. Containers that fail to clean up are stopped.
+     */
+    void release( final Lease lease )
+    {
+        synchronized( this )
+        {
+            if( !m_leased.remove( lease ) )
+            {
+                return;
+            }
+        }
+        try
+        {
+            for( TestContainer container : lease.getContainers() )
+            {
+                container.cleanup();
+            }
+        } catch( RuntimeException e )
+        {
+            LOG.warn( "Cleanup failed, containers for " + lease.m_key + " will not be reused: " + e.getMessage() );
+            lease.stop();
+            return;
+        }
+        synchronized( this )
+        {
+            lease.m_released = System.currentTimeMillis();
+            LinkedList<Lease> idle = m_idle.get( lease.m_key );
+            if( idle == null )
+            {
+                idle = new LinkedList<Lease>();
+                m_idle.put( lease.m_key, idle );
+            }
+            idle.addLast( lease );
+            if( m_reaper == null )
+            {
+                m_reaper = new Timer( "pax-exam-pool-reaper", true );
+            }
+            m_reaper.schedule( new TimerTask()
+            {
+                @Override
+                public void run()
+                {
+                    reap();
+                }
+            }, m_idleTimeout
+            );
+        }
+    }
+
+    /**
+     * Stops all containers that have been idle for longer than the idle timeout.
+     */
+    void reap()
+    {
+        List<Lease> expired = new ArrayList<Lease>();
+        synchronized( this )
+        {
+            long now = System.currentTimeMillis();
+            for( LinkedList<Lease> idle : m_idle.values() )
+            {
+                for( Lease lease : new ArrayList<Lease>( idle ) )
+                {
+                    if( now - lease.m_released >= m_idleTimeout )
+                    {
+                        idle.remove( lease );
+                        expired.add( lease );
+                    }
+                }
+            }
+        }
+        stop( expired );
+    }
+
+    /**
+     * Stops all containers, leased or idle.
+     */
+    public void shutdown()
+    {
+        List<Lease> all = new ArrayList<Lease>();
+        synchronized( this )
+        {
+            for( LinkedList<Lease> idle : m_idle.values() )
+            {
+                all.addAll( idle );
+            }
+            m_idle.clear();
+            all.addAll( m_leased );
+            m_leased.clear();
+            if( m_reaper != null )
+            {
+                m_reaper.cancel();
+                m_reaper = null;
+            }
+        }
+        stop( all );
+    }
+
+    private static void stop( List<Lease> leases )
+    {
+        List<TestContainer> containers = new ArrayList<TestContainer>();
+        for( Lease lease : leases )
+        {
+            LOG.debug( "Stopping containers for " + lease.m_key );
+            containers.addAll( Arrays.asList( lease.getContainers() ) );
+        }
+        new ContainerStopper().stop( containers );
+    }
+
+    private static void stopQuietly( TestContainer container )
+    {
+        try
+        {
+            container.stop();
+        } catch( Exception e )
+        {
+            LOG.warn( "Stopping " + container + " failed: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Exclusive use of the containers started for one configuration.
+     */
+    public class Lease
+    {
+
+        private final String m_key;
+        private final TestContainer[] m_containers;
+        private long m_released;
+
+        private Lease( String key, TestContainer[] containers )
+        {
+            m_key = key;
+            m_containers = containers;
+        }
+
+        public TestContainer[] getContainers()
+        {
+            return m_containers;
+        }
+
+        /**
+         * Hands the containers back to the pool. Calling this more than once has no effect.
+         */
+        public void release()
+        {
+            ContainerPool.this.release( this );
+        }
+
+        private void stop()
+        {
+            for( TestContainer container : m_containers )
+            {
+                stopQuietly( container );
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.spi.KillableTestContainer;
+
+/**
+ * Stops containers concurrently, each within a deadline. Containers that miss it are killed if they are
+ * {@link KillableTestContainer}s and abandoned otherwise.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContainerStopper
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ContainerStopper.class );
+
+    /**
+     * Milliseconds a container may take to stop (default: 30000).
+     */
+    public static final String TIMEOUT = "org.ops4j.pax.exam.reactor.stopTimeout";
+
+    private final long m_timeout;
+
+    public ContainerStopper()
+    {
+        this( Long.getLong( TIMEOUT, 30000 ) );
+    }
+
+    public ContainerStopper( long timeout )
+    {
+        m_timeout = timeout;
+    }
+
+    /**
+     * @param containers containers to stop.
+     *
+     * @return milliseconds spent.
+     */
+    public long stop( Collection<? extends TestContainer> containers )
+    {
+        long start = System.currentTimeMillis();
+        if( containers.isEmpty() )
+        {
+            return 0;
+        }
+        BoundedExecutor executor = BoundedExecutor.background( containers.size(), "pax-exam-stop" );
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for( final TestContainer container : containers )
+        {
+            futures.add( executor.submit( new Callable<Object>()
+            {
+                public Object call()
+                {
+                    container.stop();
+                    return null;
+                }
+            }
+            )
+            );
+        }
+        executor.shutdown();
+
+        int i = 0;
+        for( TestContainer container : containers )
+        {
+            Future<Object> future = futures.get( i++ );
+            try
+            {
+                future.get( Math.max( 0, start + m_timeout - System.currentTimeMillis() ), TimeUnit.MILLISECONDS );
+            } catch( java.util.concurrent.TimeoutException e )
+            {
+                if( container instanceof KillableTestContainer )
+                {
+                    LOG.warn( "Container " + container + " did not stop within " + m_timeout + " ms, killing it" );
+                    ( (KillableTestContainer) container ).kill();
+                }
+                else
+                {
+                    LOG.warn( "Container " + container + " did not stop within " + m_timeout + " ms, abandoning it" );
+                }
+            } catch( ExecutionException e )
+            {
+                LOG.warn( "Stopping " + container + " failed: " + e.getCause() );
+            } catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        long took = System.currentTimeMillis() - start;
+        LOG.debug( "Stopped " + containers.size() + " container(s) in " + took + " ms" );
+        return took;
+    }
+}
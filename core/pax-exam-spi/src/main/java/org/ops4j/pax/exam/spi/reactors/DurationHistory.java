@@ -0,0 +1,248 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers how long tests took (in milliseconds, keyed by {@link org.ops4j.pax.exam.spi.TestAddress#signature()}) so
+ * the next run can schedule long tests first. Durations of the current run are merged into the file at JVM shutdown,
+ * smoothed with the durations of earlier runs. Several JVMs (like shard workers) may share the file, merging is guarded
+ * by a file lock.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class DurationHistory
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( DurationHistory.class );
+
+    /**
+     * File to keep the history in. If not set, durations are neither recorded nor used.
+     */
+    public static final String FILE = "org.ops4j.pax.exam.durations";
+
+    private static DurationHistory s_instance;
+
+    private final File m_file;
+    private final Properties m_history;
+    private final Map<String, Long> m_recorded = new ConcurrentHashMap<String, Long>();
+
+    DurationHistory( File file )
+    {
+        m_file = file;
+        m_history = load( file );
+    }
+
+    /**
+     * @return history as configured with {@link #FILE}.
+     */
+    public static synchronized DurationHistory getInstance()
+    {
+        if( s_instance == null )
+        {
+            String file = System.getProperty( FILE );
+            final DurationHistory history = new DurationHistory( file == null ? null : new File( file ) );
+            if( history.isEnabled() )
+            {
+                ShutdownTasks.onCleanup( new Runnable()
+                {
+                    public void run()
+                    {
+                        history.store();
+                    }
+                }
+                );
+            }
+            s_instance = history;
+        }
+        return s_instance;
+    }
+
+    public boolean isEnabled()
+    {
+        return m_file != null;
+    }
+
+    /**
+     * @param signature test
+     *
+     * @return duration of test in earlier runs, or -1 if unknown.
+     */
+    public long get( String signature )
+    {
+        String value = m_history.getProperty( signature );
+        if( value != null )
+        {
+            try
+            {
+                return Long.parseLong( value );
+            } catch( NumberFormatException e )
+            {
+                // treat as unknown
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records a duration of this run. If a test runs several times (for example on several containers), the longest
+     * duration counts.
+     *
+     * @param signature test
+     * @param millis    duration
+     */
+    public void record( String signature, long millis )
+    {
+        if( !isEnabled() )
+        {
+            return;
+        }
+        synchronized( m_recorded )
+        {
+            Long previous = m_recorded.get( signature );
+            if( previous == null || previous < millis )
+            {
+                m_recorded.put( signature, millis );
+            }
+        }
+    }
+
+    /**
+     * Merges durations of this run into the history file. Other JVMs may have written in the meantime, so the file is
+     * read again first.
+     */
+    public synchronized void store()
+    {
+        if( !isEnabled() || m_recorded.isEmpty() )
+        {
+            return;
+        }
+        RandomAccessFile lockFile = null;
+        FileLock lock = null;
+        File tmp = new File( m_file.getPath() + ".tmp" );
+        try
+        {
+            if( m_file.getParentFile() != null )
+            {
+                m_file.getParentFile().mkdirs();
+            }
+            // other JVMs read, merge and write the same file
+            lockFile = new RandomAccessFile( new File( m_file.getPath() + ".lock" ), "rw" );
+            lock = lockFile.getChannel().lock();
+            merge( tmp );
+        } catch( IOException e )
+        {
+            LOG.warn( "Cannot store test durations in " + m_file + ": " + e.getMessage() );
+            tmp.delete();
+        } finally
+        {
+            if( lock != null )
+            {
+                try
+                {
+                    lock.release();
+                } catch( IOException e )
+                {
+                    LOG.debug( "Cannot release lock on " + m_file + ": " + e.getMessage() );
+                }
+            }
+            if( lockFile != null )
+            {
+                try
+                {
+                    lockFile.close();
+                } catch( IOException e )
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private void merge( File tmp )
+        throws IOException
+    {
+        Properties merged = load( m_file );
+        for( Map.Entry<String, Long> entry : m_recorded.entrySet() )
+        {
+            long millis = entry.getValue();
+            String previous = merged.getProperty( entry.getKey() );
+            if( previous != null )
+            {
+                try
+                {
+                    millis = ( millis + Long.parseLong( previous ) ) / 2;
+                } catch( NumberFormatException e )
+                {
+                    // overwrite
+                }
+            }
+            merged.setProperty( entry.getKey(), Long.toString( millis ) );
+        }
+        OutputStream out = new FileOutputStream( tmp );
+        try
+        {
+            merged.store( out, "Pax Exam test durations (ms)" );
+        } finally
+        {
+            out.close();
+        }
+        m_file.delete();
+        if( !tmp.renameTo( m_file ) )
+        {
+            throw new IOException( "Cannot rename " + tmp + " to " + m_file );
+        }
+    }
+
+    private static Properties load( File file )
+    {
+        Properties p = new Properties();
+        if( file != null && file.exists() )
+        {
+            try
+            {
+                InputStream in = new FileInputStream( file );
+                try
+                {
+                    p.load( in );
+                } finally
+                {
+                    in.close();
+                }
+            } catch( IOException e )
+            {
+                LOG.warn( "Cannot read test durations from " + file + ": " + e.getMessage() );
+            }
+        }
+        return p;
+    }
+}
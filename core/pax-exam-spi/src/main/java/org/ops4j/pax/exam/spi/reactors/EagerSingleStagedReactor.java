@@ -20,16 +20,22 @@ package org.ops4j.pax.exam.spi.reactors;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionDescription;
 import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.TestContainerException;
 import org.ops4j.pax.exam.TestContainerFactory;
+import org.ops4j.pax.exam.spi.AsyncStagedExamReactor;
+import org.ops4j.pax.exam.spi.MultipleFailureException;
 import org.ops4j.pax.exam.spi.TestAddress;
-import org.ops4j.pax.exam.spi.StagedExamReactor;
 import org.ops4j.pax.exam.spi.TestProbeBuilder;
-import org.ops4j.pax.exam.spi.container.DefaultRaw;
 
 /**
  * One target only reactor implementation (simpliest and fastest)
@@ -37,12 +43,31 @@ import org.ops4j.pax.exam.spi.container.DefaultRaw;
  *
  * @author tonit
  */
-public class EagerSingleStagedReactor implements StagedExamReactor
+public class EagerSingleStagedReactor implements AsyncStagedExamReactor
 {
 
     private static Logger LOG = LoggerFactory.getLogger( EagerSingleStagedReactor.class );
 
+    /**
+     * Number of containers started at the same time (default: 1, one after another).
+     */
+    public static final String THREADS = "org.ops4j.pax.exam.reactor.threads";
+
+    /**
+     * Number of containers a single test is invoked on at the same time (default: 1, one after another).
+     * With more than one, failures of all containers are collected into a {@link MultipleFailureException}.
+     */
+    public static final String IN_FLIGHT = "org.ops4j.pax.exam.reactor.inFlight";
+
+    /**
+     * If true, containers boot in the background and the reactor is handed out right away (default: false).
+     */
+    public static final String ASYNC = "org.ops4j.pax.exam.reactor.async";
+
     private TestContainer[] m_targetContainer;
+    private final BoundedExecutor m_invoker;
+    private final List<FutureTask<TestContainer>> m_ready;
+    private final Future<Object> m_staged;
 
     /**
      * @param factory         to be used to instantiate container(s).
@@ -64,42 +89,258 @@ public class EagerSingleStagedReactor implements StagedExamReactor
             m_targets.addAll( Arrays.asList( factory.parse( option ) ) );
         }
 
-        List<TestContainer> containers = new ArrayList<TestContainer>();
-
+        final List<TestContainer> containers = new ArrayList<TestContainer>();
         for( OptionDescription description : m_targets )
         {
             TestContainer container = factory.createContainer( description );
             printer.print( this.getClass().getName(), description, container.getClass() );
-
             containers.add( container );
-            container.start();
+        }
+        m_targetContainer = containers.toArray( new TestContainer[containers.size()] );
+        m_ready = readiness( mProbes );
+        m_invoker = BoundedExecutor.fromSystemProperty( IN_FLIGHT, "pax-exam-invoke" );
 
-            for( TestProbeBuilder builder : mProbes )
+        BoundedExecutor stager = Boolean.getBoolean( ASYNC )
+                                 ? BoundedExecutor.background( 1, "pax-exam-stager" )
+                                 : new BoundedExecutor( 1, "pax-exam-stager" );
+        m_staged = stager.submit( new Callable<Object>()
+        {
+            public Object call()
+                throws Exception
             {
-                LOG.debug( "installing probe " + builder );
-                container.install( builder.getStream() );
+                stage();
+                return null;
             }
         }
-        m_targetContainer = containers.toArray( new TestContainer[containers.size()] );
+        );
+        stager.shutdown();
+        if( m_staged.isDone() )
+        {
+            // synchronous staging fails right here
+            awaitStaged();
+        }
+    }
+
+    /**
+     * @return one task per container that starts it and installs the probes.
+     */
+    private List<FutureTask<TestContainer>> readiness( final List<TestProbeBuilder> probes )
+    {
+        List<FutureTask<TestContainer>> ready = new ArrayList<FutureTask<TestContainer>>();
+        for( final TestContainer container : m_targetContainer )
+        {
+            ready.add( new FutureTask<TestContainer>( new Callable<TestContainer>()
+            {
+                public TestContainer call()
+                    throws Exception
+                {
+                    long start = System.currentTimeMillis();
+                    container.start();
+                    for( TestProbeBuilder builder : probes )
+                    {
+                        ProbeInstaller.install( container, builder );
+                    }
+                    LOG.info( "Container " + container + " ready after " + ( System.currentTimeMillis() - start ) + " ms" );
+                    return container;
+                }
+            }
+            )
+            );
+        }
+        return ready;
+    }
+
+    public List<Future<TestContainer>> getReadiness()
+    {
+        return new ArrayList<Future<TestContainer>>( m_ready );
+    }
+
+    /**
+     * Starts all containers and installs the probes, using up to {@link #THREADS} containers at the same time.
+     * If one container fails, no more containers are started and those already started are stopped again.
+     */
+    private void stage()
+    {
+        final boolean[] attempted = new boolean[m_targetContainer.length];
+        List<Callable<TestContainer>> tasks = new ArrayList<Callable<TestContainer>>();
+        for( int i = 0; i < m_targetContainer.length; i++ )
+        {
+            final int index = i;
+            tasks.add( new Callable<TestContainer>()
+            {
+                public TestContainer call()
+                    throws Exception
+                {
+                    synchronized( attempted )
+                    {
+                        attempted[ index ] = true;
+                    }
+                    FutureTask<TestContainer> ready = m_ready.get( index );
+                    ready.run();
+                    try
+                    {
+                        return ready.get();
+                    } catch( ExecutionException e )
+                    {
+                        if( e.getCause() instanceof Exception )
+                        {
+                            throw (Exception) e.getCause();
+                        }
+                        throw e;
+                    }
+                }
+            }
+            );
+        }
+
+        BoundedExecutor executor = BoundedExecutor.fromSystemProperty( THREADS, "pax-exam-stage" );
+        try
+        {
+            long start = System.currentTimeMillis();
+            executor.invokeAll( tasks );
+            LOG.debug( "Staged " + m_targetContainer.length + " container(s) on " + executor.getThreads()
+                       + " thread(s) in " + ( System.currentTimeMillis() - start ) + " ms"
+            );
+        } catch( Exception e )
+        {
+            List<TestContainer> started = new ArrayList<TestContainer>();
+            synchronized( attempted )
+            {
+                for( int i = 0; i < m_targetContainer.length; i++ )
+                {
+                    if( attempted[ i ] )
+                    {
+                        started.add( m_targetContainer[ i ] );
+                    }
+                    // containers never attempted must not keep invoke() waiting
+                    m_ready.get( i ).cancel( false );
+                }
+            }
+            new ContainerStopper().stop( started );
+            if( e instanceof TestContainerException )
+            {
+                throw (TestContainerException) e;
+            }
+            throw new TestContainerException( "Staging containers failed", e );
+        } finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Waits until staging is over and rethrows its failure, if any.
+     */
+    private void awaitStaged()
+    {
+        try
+        {
+            m_staged.get();
+        } catch( ExecutionException e )
+        {
+            if( e.getCause() instanceof TestContainerException )
+            {
+                throw (TestContainerException) e.getCause();
+            }
+            throw new TestContainerException( "Staging containers failed", e.getCause() );
+        } catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new TestContainerException( "Interrupted while staging containers", e );
+        }
     }
 
-    public void invoke( TestAddress call )
+    /**
+     * Waits until container at index is started and provisioned.
+     */
+    private TestContainer awaitReady( int index )
+        throws InterruptedException
+    {
+        try
+        {
+            return m_ready.get( index ).get();
+        } catch( ExecutionException e )
+        {
+            // staging cleans up and reports
+        } catch( CancellationException e )
+        {
+            // staging failed before this container was started
+        }
+        awaitStaged();
+        throw new TestContainerException( "Container " + m_targetContainer[ index ] + " is not available" );
+    }
+
+    public void invoke( final TestAddress call )
         throws Exception
     {
         LOG.debug( "Trying to invoke signature: " + call.signature() );
-        for( TestContainer container : m_targetContainer )
+        if( m_invoker.getThreads() == 1 || m_targetContainer.length == 1 )
         {
+            for( int i = 0; i < m_targetContainer.length; i++ )
+            {
 
-            DefaultRaw.execute( container, call );
+                TimedExecution.execute( awaitReady( i ), call );
+            }
+            return;
+        }
+
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for( int i = 0; i < m_targetContainer.length; i++ )
+        {
+            final int index = i;
+            futures.add( m_invoker.submit( new Callable<Object>()
+            {
+                public Object call()
+                    throws Exception
+                {
+                    TimedExecution.execute( awaitReady( index ), call );
+                    return null;
+                }
+            }
+            )
+            );
+        }
+        List<String> sources = new ArrayList<String>();
+        List<Throwable> failures = new ArrayList<Throwable>();
+        for( int i = 0; i < futures.size(); i++ )
+        {
+            try
+            {
+                futures.get( i ).get();
+            } catch( ExecutionException e )
+            {
+                sources.add( m_targetContainer[ i ].toString() );
+                failures.add( e.getCause() );
+            }
+        }
+        if( failures.size() == 1 && failures.get( 0 ) instanceof Exception )
+        {
+            throw (Exception) failures.get( 0 );
+        }
+        if( failures.size() == 1 && failures.get( 0 ) instanceof Error )
+        {
+            // like assertion errors, which tell test failures from errors
+            throw (Error) failures.get( 0 );
+        }
+        if( failures.size() > 0 )
+        {
+            throw new MultipleFailureException( sources, failures );
         }
     }
 
     public void tearDown()
     {
-        for( TestContainer container : m_targetContainer )
+        m_invoker.shutdown();
+        try
+        {
+            awaitStaged();
+        } catch( TestContainerException e )
         {
-            container.stop();
+            // containers have already been stopped
+            return;
         }
+        long took = new ContainerStopper().stop( Arrays.asList( m_targetContainer ) );
+        LOG.info( "Tear down of " + m_targetContainer.length + " container(s) took " + took + " ms" );
     }
 
 
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.options.BootClasspathLibraryOption;
+import org.ops4j.pax.exam.options.ExecutionPolicyOption;
+import org.ops4j.pax.exam.options.ProvisionOption;
+import org.ops4j.pax.exam.options.SystemPropertyOption;
+import org.ops4j.pax.exam.spi.probesupport.ContentDigest;
+
+import static org.ops4j.pax.exam.OptionUtils.*;
+
+/**
+ * Canonical identity of a (user-end) configuration. Two configurations with the same fingerprint boot identical
+ * containers, so a container started for one can be reused for the other.
+ * Options are compared by value (their fields), not by identity, and normalized before they are compared:
+ * <ul>
+ * <li>system properties are resolved per key, the last value wins</li>
+ * <li>provisioning options (bundles and boot class path libraries) keep their order, as it is install order; a repeated
+ * one only counts where it occurs first</li>
+ * <li>all other options are sorted, their order does not change the container</li>
+ * </ul>
+ * So configurations that only differ in the order of equivalent options share a container.
+ * {@link ExecutionPolicyOption}s are left out as they control the reactor, not the container.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class OptionFingerprint
+{
+
+    private final String m_value;
+
+    private OptionFingerprint( String value )
+    {
+        m_value = value;
+    }
+
+    /**
+     * @param options configuration, will be expanded.
+     *
+     * @return fingerprint of options.
+     */
+    public static OptionFingerprint of( Option... options )
+    {
+        Set<String> provisioning = new LinkedHashSet<String>();
+        Map<String, String> properties = new TreeMap<String, String>();
+        Set<String> others = new TreeSet<String>();
+        for( Option option : remove( ExecutionPolicyOption.class, options ) )
+        {
+            String canonical = canonical( option );
+            if( option instanceof SystemPropertyOption )
+            {
+                properties.put( ( (SystemPropertyOption) option ).getKey(), canonical );
+            }
+            else if( option instanceof ProvisionOption || option instanceof BootClasspathLibraryOption )
+            {
+                provisioning.add( canonical );
+            }
+            else
+            {
+                others.add( canonical );
+            }
+        }
+        ContentDigest digest = new ContentDigest();
+        digest.update( "provisioning" );
+        for( String canonical : provisioning )
+        {
+            digest.update( canonical );
+        }
+        digest.update( "properties" );
+        for( String canonical : properties.values() )
+        {
+            digest.update( canonical );
+        }
+        digest.update( "others" );
+        for( String canonical : others )
+        {
+            digest.update( canonical );
+        }
+        return new OptionFingerprint( digest.toHex() );
+    }
+
+    /**
+     * @param configurations configurations, possibly with duplicates.
+     *
+     * @return the first of each group of configurations with equal fingerprints, in their original order.
+     */
+    public static List<Option[]> distinct( List<Option[]> configurations )
+    {
+        Set<OptionFingerprint> seen = new HashSet<OptionFingerprint>();
+        List<Option[]> distinct = new ArrayList<Option[]>();
+        for( Option[] options : configurations )
+        {
+            if( seen.add( of( options ) ) )
+            {
+                distinct.add( options );
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * @param option option to describe
+     *
+     * @return a textual form of option that only depends on its values.
+     */
+    static String canonical( Option option )
+    {
+        StringBuilder sb = new StringBuilder();
+        append( sb, option, new IdentityHashMap<Object, Object>() );
+        return sb.toString();
+    }
+
+    private static void append( StringBuilder sb, Object value, Map<Object, Object> visited )
+    {
+        if( value == null )
+        {
+            sb.append( "null" );
+        }
+        else if( value instanceof String || value instanceof Number || value instanceof Boolean
+                 || value instanceof Character || value instanceof Enum )
+        {
+            sb.append( value );
+        }
+        else if( value instanceof Class )
+        {
+            sb.append( ( (Class) value ).getName() );
+        }
+        else if( value.getClass().isArray() )
+        {
+            sb.append( '[' );
+            for( int i = 0; i < Array.getLength( value ); i++ )
+            {
+                append( sb, Array.get( value, i ), visited );
+                sb.append( ',' );
+            }
+            sb.append( ']' );
+        }
+        else if( value instanceof Collection )
+        {
+            append( sb, ( (Collection) value ).toArray(), visited );
+        }
+        else if( value instanceof Map )
+        {
+            // sorted by key, iteration order of maps is arbitrary
+            Map<String, String> entries = new TreeMap<String, String>();
+            for( Object e : ( (Map) value ).entrySet() )
+            {
+                StringBuilder key = new StringBuilder();
+                append( key, ( (Map.Entry) e ).getKey(), visited );
+                StringBuilder entry = new StringBuilder();
+                append( entry, ( (Map.Entry) e ).getValue(), visited );
+                entries.put( key.toString(), entry.toString() );
+            }
+            sb.append( '{' );
+            for( Map.Entry<String, String> e : entries.entrySet() )
+            {
+                sb.append( e.getKey() ).append( '=' ).append( e.getValue() ).append( ',' );
+            }
+            sb.append( '}' );
+        }
+        else if( value instanceof Option || value.getClass().getName().startsWith( "org.ops4j." ) )
+        {
+            if( visited.put( value, value ) != null )
+            {
+                sb.append( "<cycle>" );
+                return;
+            }
+            sb.append( value.getClass().getName() ).append( '(' );
+            for( Field field : fields( value.getClass() ) )
+            {
+                sb.append( field.getName() ).append( '=' );
+                try
+                {
+                    append( sb, field.get( value ), visited );
+                } catch( IllegalAccessException e )
+                {
+                    sb.append( "?" );
+                }
+                sb.append( ';' );
+            }
+            sb.append( ')' );
+            visited.remove( value );
+        }
+        else
+        {
+            sb.append( value.getClass().getName() ).append( ':' ).append( value );
+        }
+    }
+
+    private static List<Field> fields( Class<?> c )
+    {
+        List<Field> fields = new ArrayList<Field>();
+        for( ; c != null && c != Object.class; c = c.getSuperclass() )
+        {
+            for( Field field : c.getDeclaredFields() )
+            {
+                if( !Modifier.isStatic( field.getModifiers() ) && !field.isSynthetic() )
+                {
+                    field.setAccessible( true );
+                    fields.add( field );
+                }
+            }
+        }
+        return fields;
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        return o instanceof OptionFingerprint && m_value.equals( ( (OptionFingerprint) o ).m_value );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return m_value.hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return m_value;
+    }
+}
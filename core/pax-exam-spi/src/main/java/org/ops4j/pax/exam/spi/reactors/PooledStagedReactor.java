@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.TestContainerFactory;
+import org.ops4j.pax.exam.spi.StagedExamReactor;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.TestProbeBuilder;
+
+/**
+ * Leases its containers from the JVM wide {@link ContainerPool}, so test classes with identical configurations
+ * share running containers (re-use policy {@link org.ops4j.pax.exam.options.ReUsePolicy#ALWAYS}, selected with
+ * {@link org.ops4j.pax.exam.spi.driversupport.DefaultExamReactor#REUSE_POLICY}).
+ * Probes are installed per reactor and removed again with {@link org.ops4j.pax.exam.TestTarget#cleanup()} on tearDown.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class PooledStagedReactor implements StagedExamReactor
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( PooledStagedReactor.class );
+
+    private final List<ContainerPool.Lease> m_leases = new ArrayList<ContainerPool.Lease>();
+    private final List<TestContainer> m_targetContainer = new ArrayList<TestContainer>();
+
+    public PooledStagedReactor( TestContainerFactory factory, List<Option[]> mConfigurations, List<TestProbeBuilder> mProbes )
+    {
+        this( ContainerPool.getInstance(), factory, mConfigurations, mProbes );
+    }
+
+    PooledStagedReactor( ContainerPool pool, TestContainerFactory factory, List<Option[]> mConfigurations, List<TestProbeBuilder> mProbes )
+    {
+        if( mConfigurations.size() < 1 )
+        {
+            // fill in a default config
+            mConfigurations.add( new Option[0] );
+        }
+        try
+        {
+            for( Option[] option : mConfigurations )
+            {
+                ContainerPool.Lease lease = pool.lease( factory, option );
+                m_leases.add( lease );
+                for( TestContainer container : lease.getContainers() )
+                {
+                    m_targetContainer.add( container );
+                    for( TestProbeBuilder builder : mProbes )
+                    {
+                        ProbeInstaller.install( container, builder );
+                    }
+                }
+            }
+        } catch( RuntimeException e )
+        {
+            tearDown();
+            throw e;
+        }
+    }
+
+    public void invoke( TestAddress call )
+        throws Exception
+    {
+        LOG.debug( "Trying to invoke signature: " + call.signature() );
+        for( TestContainer container : m_targetContainer )
+        {
+            TimedExecution.execute( container, call );
+        }
+    }
+
+    public void tearDown()
+    {
+        for( ContainerPool.Lease lease : m_leases )
+        {
+            lease.release();
+        }
+    }
+}
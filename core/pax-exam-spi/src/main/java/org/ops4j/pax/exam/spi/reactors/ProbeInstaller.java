@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.File;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.TestTarget;
+import org.ops4j.pax.exam.spi.ExplodedProbeProvider;
+import org.ops4j.pax.exam.spi.InProcessTestTarget;
+import org.ops4j.pax.exam.spi.TestProbeProvider;
+import org.ops4j.pax.exam.spi.probesupport.ExplodedProbe;
+
+/**
+ * Installs probes into targets, the same way for all reactors.
+ *
+ * When {@link ExplodedProbe#ENABLED} is set and both sides support it, the probe folder is installed in place instead of
+ * building and streaming a jar.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeInstaller
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ProbeInstaller.class );
+
+    private ProbeInstaller()
+    {
+        // utility class
+    }
+
+    /**
+     * @param target target to install to.
+     * @param probe  probe to install.
+     *
+     * @return Bundle ID
+     */
+    public static long install( TestTarget target, TestProbeProvider probe )
+    {
+        LOG.debug( "installing probe " + probe );
+        if( Boolean.getBoolean( ExplodedProbe.ENABLED )
+            && target instanceof InProcessTestTarget
+            && probe instanceof ExplodedProbeProvider )
+        {
+            File folder = ( (ExplodedProbeProvider) probe ).getFolder();
+            long id = folder == null ? -1 : ( (InProcessTestTarget) target ).install( folder );
+            if( id >= 0 )
+            {
+                return id;
+            }
+            LOG.debug( "Exploded install of probe " + probe + " failed. Falling back to jar." );
+        }
+        return target.install( probe.getStream() );
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.TestContainerException;
+
+/**
+ * Local worker processes ({@link ShardWorker}) that tests can be sharded across. Workers are started once per JVM,
+ * talk to this process over the loopback interface, and run until this JVM exits. Each worker has its own
+ * {@link ContainerPool}.
+ *
+ * Every worker gets a random token through its stdin and has to send it first when it connects. Other connections are
+ * dropped before anything is deserialized from them.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShardPool
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ShardPool.class );
+
+    /**
+     * Number of worker processes. Sharding is enabled with more than one (default: 0).
+     */
+    public static final String SHARDS = "org.ops4j.pax.exam.shards";
+
+    /**
+     * Set in worker processes, so they run their tests themselves.
+     */
+    public static final String WORKER = "org.ops4j.pax.exam.shard.worker";
+
+    /**
+     * Additional, space separated, JVM options for worker processes.
+     */
+    public static final String VM_OPTIONS = "org.ops4j.pax.exam.shard.vmOptions";
+
+    /**
+     * Milliseconds to wait for workers to connect (default: 60000).
+     */
+    public static final String CONNECT_TIMEOUT = "org.ops4j.pax.exam.shard.connectTimeout";
+
+    /**
+     * Milliseconds to wait for a worker to answer a single request before giving it up (default: 1800000).
+     */
+    public static final String REQUEST_TIMEOUT = "org.ops4j.pax.exam.shard.requestTimeout";
+
+    private static final int TOKEN_LENGTH = 32;
+
+    private static ShardPool s_instance;
+
+    private final List<Process> m_processes = new ArrayList<Process>();
+    private final List<Worker> m_workers = new ArrayList<Worker>();
+    private final BlockingQueue<Worker> m_idle = new LinkedBlockingQueue<Worker>();
+
+    ShardPool( int shards )
+        throws IOException
+    {
+        ServerSocket server = new ServerSocket( 0, shards, InetAddress.getByName( "127.0.0.1" ) );
+        String token = token();
+        try
+        {
+            for( int i = 0; i < shards; i++ )
+            {
+                m_processes.add( launch( server.getLocalPort(), token, i ) );
+            }
+            int timeout = Integer.getInteger( CONNECT_TIMEOUT, 60000 );
+            long deadline = System.currentTimeMillis() + timeout;
+            server.setSoTimeout( timeout );
+            while( m_workers.size() < shards )
+            {
+                Socket socket = server.accept();
+                socket.setSoTimeout( (int) Math.max( 1, deadline - System.currentTimeMillis() ) );
+                if( !authenticate( socket, token ) )
+                {
+                    LOG.warn( "Dropped connection from " + socket.getRemoteSocketAddress() + " without a valid token" );
+                    socket.close();
+                    server.setSoTimeout( (int) Math.max( 1, deadline - System.currentTimeMillis() ) );
+                    continue;
+                }
+                Worker worker = new Worker( socket, Integer.getInteger( REQUEST_TIMEOUT, 1800000 ) );
+                m_workers.add( worker );
+                m_idle.add( worker );
+            }
+        } catch( IOException e )
+        {
+            shutdown();
+            throw e;
+        } finally
+        {
+            server.close();
+        }
+        LOG.info( "Started " + shards + " worker processes" );
+    }
+
+    public static boolean isEnabled()
+    {
+        return !Boolean.getBoolean( WORKER ) && Integer.getInteger( SHARDS, 0 ) > 1;
+    }
+
+    /**
+     * @return workers of this JVM, started on first use.
+     */
+    public static synchronized ShardPool getInstance()
+    {
+        if( s_instance == null )
+        {
+            try
+            {
+                final ShardPool pool = new ShardPool( Integer.getInteger( SHARDS, 0 ) );
+                ShutdownTasks.onStop( new Runnable()
+                {
+                    public void run()
+                    {
+                        pool.shutdown();
+                    }
+                }
+                );
+                s_instance = pool;
+            } catch( IOException e )
+            {
+                throw new TestContainerException( "Cannot start worker processes", e );
+            }
+        }
+        return s_instance;
+    }
+
+    public int size()
+    {
+        return m_workers.size();
+    }
+
+    /**
+     * @return an idle worker, waits until one becomes available.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    Worker take()
+        throws InterruptedException
+    {
+        while( true )
+        {
+            Worker worker = m_idle.poll( 1, TimeUnit.SECONDS );
+            if( worker != null )
+            {
+                return worker;
+            }
+            synchronized( m_workers )
+            {
+                if( m_workers.isEmpty() )
+                {
+                    throw new TestContainerException( "All worker processes have died" );
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes worker available again, unless it has died.
+     */
+    void release( Worker worker )
+    {
+        if( worker.isAlive() )
+        {
+            m_idle.add( worker );
+        }
+        else
+        {
+            synchronized( m_workers )
+            {
+                m_workers.remove( worker );
+            }
+        }
+    }
+
+    /**
+     * Closes all connections, which makes workers tear down their reactors and exit.
+     */
+    public void shutdown()
+    {
+        synchronized( m_workers )
+        {
+            for( Worker worker : m_workers )
+            {
+                worker.close();
+            }
+            m_workers.clear();
+        }
+        long deadline = System.currentTimeMillis() + 10000;
+        for( Process process : m_processes )
+        {
+            while( !hasExited( process ) && System.currentTimeMillis() < deadline )
+            {
+                try
+                {
+                    Thread.sleep( 50 );
+                } catch( InterruptedException e )
+                {
+                    break;
+                }
+            }
+            if( !hasExited( process ) )
+            {
+                LOG.warn( "Worker process did not exit in time, destroying it" );
+                process.destroy();
+            }
+        }
+    }
+
+    private static boolean hasExited( Process process )
+    {
+        try
+        {
+            process.exitValue();
+            return true;
+        } catch( IllegalThreadStateException e )
+        {
+            return false;
+        }
+    }
+
+    private static String token()
+    {
+        byte[] bytes = new byte[TOKEN_LENGTH / 2];
+        new SecureRandom().nextBytes( bytes );
+        StringBuilder sb = new StringBuilder();
+        for( byte b : bytes )
+        {
+            sb.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) ).append( Character.forDigit( b & 0xf, 16 ) );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return true if the first bytes sent over socket are token, read with the connect timeout.
+     */
+    static boolean authenticate( Socket socket, String token )
+    {
+        try
+        {
+            InputStream in = socket.getInputStream();
+            byte[] received = new byte[token.length()];
+            int read = 0;
+            while( read < received.length )
+            {
+                int n = in.read( received, read, received.length - read );
+                if( n < 0 )
+                {
+                    return false;
+                }
+                read += n;
+            }
+            return MessageDigest.isEqual( received, token.getBytes( "US-ASCII" ) );
+        } catch( IOException e )
+        {
+            return false;
+        }
+    }
+
+    private Process launch( int port, String token, final int index )
+        throws IOException
+    {
+        List<String> command = new ArrayList<String>();
+        command.add( System.getProperty( "java.home" ) + File.separator + "bin" + File.separator + "java" );
+        String options = System.getProperty( VM_OPTIONS );
+        if( options != null && options.trim().length() > 0 )
+        {
+            for( String option : options.trim().split( "\\s+" ) )
+            {
+                command.add( option );
+            }
+        }
+        for( Map.Entry<Object, Object> property : System.getProperties().entrySet() )
+        {
+            String key = property.getKey().toString();
+            if( key.startsWith( "org.ops4j.pax.exam." ) && !key.equals( SHARDS ) )
+            {
+                command.add( "-D" + key + "=" + property.getValue() );
+            }
+        }
+        command.add( "-D" + WORKER + "=true" );
+        command.add( "-cp" );
+        command.add( System.getProperty( "java.class.path" ) );
+        command.add( ShardWorker.class.getName() );
+        command.add( Integer.toString( port ) );
+
+        final Process process = new ProcessBuilder( command ).redirectErrorStream( true ).start();
+        // through stdin, unlike the command line it cannot be seen by other processes
+        OutputStream stdin = process.getOutputStream();
+        stdin.write( ( token + "\n" ).getBytes( "US-ASCII" ) );
+        stdin.close();
+        Thread pump = new Thread( "pax-exam-shard-" + index + "-output" )
+        {
+            @Override
+            public void run()
+            {
+                InputStream in = process.getInputStream();
+                try
+                {
+                    StreamUtils.copyStream( in, System.out, false );
+                } catch( IOException e )
+                {
+                    // process is gone
+                }
+            }
+        };
+        pump.setDaemon( true );
+        pump.start();
+        return process;
+    }
+
+    /**
+     * Connection to a single worker process.
+     */
+    static class Worker
+    {
+
+        private final Socket m_socket;
+        private final ObjectOutputStream m_out;
+        private final ObjectInputStream m_in;
+        private volatile boolean m_alive = true;
+
+        private Worker( Socket socket, int timeout )
+            throws IOException
+        {
+            m_socket = socket;
+            m_socket.setTcpNoDelay( true );
+            // a hung worker must not block the driver forever
+            m_socket.setSoTimeout( timeout );
+            m_out = new ObjectOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+            m_out.flush();
+            m_in = new ObjectInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        }
+
+        /**
+         * @param request request as understood by {@link ShardWorker}.
+         *
+         * @return null on success, the failure in the worker otherwise.
+         *
+         * @throws TestContainerException if the worker cannot be reached.
+         */
+        synchronized Throwable request( String... request )
+        {
+            try
+            {
+                m_out.writeObject( request );
+                m_out.flush();
+                m_out.reset();
+                return (Throwable) m_in.readObject();
+            } catch( Exception e )
+            {
+                m_alive = false;
+                close();
+                throw new TestContainerException( "Worker process failed on " + request[ 0 ], e );
+            }
+        }
+
+        boolean isAlive()
+        {
+            return m_alive;
+        }
+
+        private void close()
+        {
+            try
+            {
+                m_socket.close();
+            } catch( IOException e )
+            {
+                // ignore
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.spi.ReactorStager;
+import org.ops4j.pax.exam.spi.StagedExamReactor;
+import org.ops4j.pax.exam.spi.TestAddress;
+
+/**
+ * Main class of a worker process started by {@link ShardPool}. Reads a token from stdin, connects back to the driver,
+ * sends the token and then serves requests one after another:
+ * <ul>
+ * <li>{@code stage <id> <stager class> <recipe>}</li>
+ * <li>{@code invoke <id> <signature> <instruction>}</li>
+ * <li>{@code tearDown <id>}</li>
+ * </ul>
+ * Each request is answered with null on success or the failure (a {@link Throwable}).
+ * The worker exits when the driver closes the connection.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShardWorker
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ShardWorker.class );
+
+    static final String STAGE = "stage";
+    static final String INVOKE = "invoke";
+    static final String TEAR_DOWN = "tearDown";
+
+    private final Map<String, StagedExamReactor> m_reactors = new HashMap<String, StagedExamReactor>();
+
+    /**
+     * @param args port of the driver on the loopback interface.
+     */
+    public static void main( String[] args )
+        throws Exception
+    {
+        String token = new BufferedReader( new InputStreamReader( System.in, "US-ASCII" ) ).readLine();
+        if( token == null )
+        {
+            throw new IllegalStateException( "No token on stdin, workers are started by " + ShardPool.class.getName() );
+        }
+        Socket socket = new Socket( InetAddress.getByName( "127.0.0.1" ), Integer.parseInt( args[ 0 ] ) );
+        socket.setTcpNoDelay( true );
+        socket.getOutputStream().write( token.getBytes( "US-ASCII" ) );
+        ObjectOutputStream out = new ObjectOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+        out.flush();
+        ObjectInputStream in = new ObjectInputStream( new BufferedInputStream( socket.getInputStream() ) );
+        ShardWorker worker = new ShardWorker();
+        try
+        {
+            while( true )
+            {
+                String[] request;
+                try
+                {
+                    request = (String[]) in.readObject();
+                } catch( EOFException e )
+                {
+                    break;
+                }
+                out.writeObject( portable( worker.serve( request ) ) );
+                out.flush();
+                out.reset();
+            }
+        } finally
+        {
+            worker.tearDownAll();
+            socket.close();
+        }
+        System.exit( 0 );
+    }
+
+    /**
+     * @return null on success, failure otherwise.
+     */
+    Throwable serve( String[] request )
+    {
+        try
+        {
+            if( STAGE.equals( request[ 0 ] ) )
+            {
+                ReactorStager stager = (ReactorStager) Class.forName(
+                    request[ 2 ], true, Thread.currentThread().getContextClassLoader()
+                ).newInstance();
+                m_reactors.put( request[ 1 ], stager.stage( request[ 3 ] ) );
+            }
+            else if( INVOKE.equals( request[ 0 ] ) )
+            {
+                reactor( request[ 1 ] ).invoke( new RemoteAddress( request[ 2 ], request[ 3 ] ) );
+            }
+            else if( TEAR_DOWN.equals( request[ 0 ] ) )
+            {
+                StagedExamReactor reactor = m_reactors.remove( request[ 1 ] );
+                if( reactor != null )
+                {
+                    reactor.tearDown();
+                }
+            }
+            else
+            {
+                throw new IllegalArgumentException( "Unknown request " + request[ 0 ] );
+            }
+            return null;
+        } catch( Throwable t )
+        {
+            return t;
+        }
+    }
+
+    private StagedExamReactor reactor( String id )
+    {
+        StagedExamReactor reactor = m_reactors.get( id );
+        if( reactor == null )
+        {
+            throw new IllegalStateException( "Reactor " + id + " has not been staged in this worker." );
+        }
+        return reactor;
+    }
+
+    private void tearDownAll()
+    {
+        for( StagedExamReactor reactor : m_reactors.values() )
+        {
+            try
+            {
+                reactor.tearDown();
+            } catch( RuntimeException e )
+            {
+                LOG.warn( "Tear down failed: " + e.getMessage() );
+            }
+        }
+        m_reactors.clear();
+    }
+
+    /**
+     * @return t, or a serializable replacement carrying its message and stack trace.
+     */
+    static Throwable portable( Throwable t )
+    {
+        if( t == null )
+        {
+            return null;
+        }
+        try
+        {
+            ObjectOutputStream out = new ObjectOutputStream( new ByteArrayOutputStream() );
+            out.writeObject( t );
+            out.close();
+            return t;
+        } catch( IOException e )
+        {
+            RuntimeException replacement = new RuntimeException( t.toString() );
+            replacement.setStackTrace( t.getStackTrace() );
+            return replacement;
+        }
+    }
+
+    /**
+     * Test as addressed by the driver.
+     */
+    private static class RemoteAddress implements TestAddress
+    {
+
+        private final String m_signature;
+        private final String m_instruction;
+
+        private RemoteAddress( String signature, String instruction )
+        {
+            m_signature = signature;
+            m_instruction = instruction;
+        }
+
+        public String signature()
+        {
+            return m_signature;
+        }
+
+        public String getInstruction()
+        {
+            return m_instruction;
+        }
+    }
+}
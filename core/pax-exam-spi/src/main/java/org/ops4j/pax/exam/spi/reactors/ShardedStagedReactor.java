@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.ops4j.pax.exam.spi.StagedExamReactor;
+import org.ops4j.pax.exam.spi.TestAddress;
+
+/**
+ * Shards test invocations across the worker processes of the {@link ShardPool}. Every call goes to the next idle
+ * worker, which stages its own copy of the reactor (from stager and recipe) when it first gets a call of this
+ * reactor. Calls from several threads run in parallel, up to the number of workers.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShardedStagedReactor implements StagedExamReactor
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ShardedStagedReactor.class );
+
+    private static final AtomicInteger s_ids = new AtomicInteger();
+
+    private final ShardPool m_pool;
+    private final String m_id;
+    private final String m_stager;
+    private final String m_recipe;
+    private final Map<ShardPool.Worker, Throwable> m_staged = new HashMap<ShardPool.Worker, Throwable>();
+
+    /**
+     * @param stager name of a {@link org.ops4j.pax.exam.spi.ReactorStager} available in worker processes.
+     * @param recipe passed to stager.
+     */
+    public ShardedStagedReactor( String stager, String recipe )
+    {
+        this( ShardPool.getInstance(), stager, recipe );
+    }
+
+    ShardedStagedReactor( ShardPool pool, String stager, String recipe )
+    {
+        m_pool = pool;
+        m_id = Integer.toString( s_ids.incrementAndGet() );
+        m_stager = stager;
+        m_recipe = recipe;
+    }
+
+    public void invoke( TestAddress call )
+        throws Exception
+    {
+        LOG.debug( "Trying to invoke signature: " + call.signature() );
+        ShardPool.Worker worker = m_pool.take();
+        try
+        {
+            rethrow( stage( worker ) );
+            rethrow( worker.request( ShardWorker.INVOKE, m_id, call.signature(), call.getInstruction() ) );
+        } finally
+        {
+            m_pool.release( worker );
+        }
+    }
+
+    /**
+     * @return failure of staging in worker, or null.
+     */
+    private Throwable stage( ShardPool.Worker worker )
+    {
+        synchronized( m_staged )
+        {
+            if( m_staged.containsKey( worker ) )
+            {
+                return m_staged.get( worker );
+            }
+        }
+        Throwable failure = worker.request( ShardWorker.STAGE, m_id, m_stager, m_recipe );
+        synchronized( m_staged )
+        {
+            m_staged.put( worker, failure );
+        }
+        return failure;
+    }
+
+    private static void rethrow( Throwable t )
+        throws Exception
+    {
+        if( t instanceof Exception )
+        {
+            throw (Exception) t;
+        }
+        if( t instanceof Error )
+        {
+            throw (Error) t;
+        }
+    }
+
+    public void tearDown()
+    {
+        synchronized( m_staged )
+        {
+            for( ShardPool.Worker worker : m_staged.keySet() )
+            {
+                if( worker.isAlive() )
+                {
+                    try
+                    {
+                        worker.request( ShardWorker.TEAR_DOWN, m_id );
+                    } catch( RuntimeException e )
+                    {
+                        LOG.warn( "Tear down in worker failed: " + e.getMessage() );
+                    }
+                }
+            }
+            m_staged.clear();
+        }
+    }
+}
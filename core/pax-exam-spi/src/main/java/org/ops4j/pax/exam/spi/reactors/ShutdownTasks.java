@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Work to be done when the JVM exits, in a defined order: containers still running are stopped first, their files
+ * (framework storage, probe folders) are cleaned up only afterwards. Separate shutdown hooks would run concurrently and
+ * could delete files under a running framework.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShutdownTasks
+{
+
+    private static Logger LOG = LoggerFactory.getLogger( ShutdownTasks.class );
+
+    private static final List<Runnable> s_stops = new ArrayList<Runnable>();
+    private static final List<Runnable> s_cleanups = new ArrayList<Runnable>();
+    private static boolean s_hooked;
+
+    private ShutdownTasks()
+    {
+    }
+
+    /**
+     * @param task stops containers at JVM exit.
+     */
+    public static void onStop( Runnable task )
+    {
+        add( s_stops, task );
+    }
+
+    /**
+     * @param task cleans up at JVM exit, after all tasks added with {@link #onStop(Runnable)} are done.
+     */
+    public static void onCleanup( Runnable task )
+    {
+        add( s_cleanups, task );
+    }
+
+    private static synchronized void add( List<Runnable> tasks, Runnable task )
+    {
+        tasks.add( task );
+        if( !s_hooked )
+        {
+            s_hooked = true;
+            Runtime.getRuntime().addShutdownHook( new Thread( "pax-exam-shutdown" )
+            {
+                @Override
+                public void run()
+                {
+                    runAll();
+                }
+            }
+            );
+        }
+    }
+
+    static void runAll()
+    {
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        synchronized( ShutdownTasks.class )
+        {
+            tasks.addAll( s_stops );
+            tasks.addAll( s_cleanups );
+            s_stops.clear();
+            s_cleanups.clear();
+        }
+        for( Runnable task : tasks )
+        {
+            try
+            {
+                task.run();
+            } catch( RuntimeException e )
+            {
+                LOG.warn( "Shutdown task " + task + " failed: " + e.getMessage() );
+            }
+        }
+    }
+}
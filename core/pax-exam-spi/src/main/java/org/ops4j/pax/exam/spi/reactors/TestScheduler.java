@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.Comparator;
+import org.ops4j.pax.exam.spi.TestAddress;
+
+/**
+ * Orders tests by their expected duration, longest first. Handing tests out in this order to whichever worker becomes
+ * idle (like a sharded run does) is the greedy longest processing time schedule, so workers finish at about the same
+ * time. Tests without history are treated as the longest, so new tests do not end up at the tail of a run.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class TestScheduler
+{
+
+    private final DurationHistory m_history;
+
+    public TestScheduler( DurationHistory history )
+    {
+        m_history = history;
+    }
+
+    /**
+     * @param test test
+     *
+     * @return expected duration in ms, {@link Long#MAX_VALUE} if unknown.
+     */
+    public long expected( TestAddress test )
+    {
+        long millis = m_history.get( test.signature() );
+        return millis < 0 ? Long.MAX_VALUE : millis;
+    }
+
+    /**
+     * @return orders tests longest first. Tests with equal expectations keep their order when sorted (stable sort).
+     */
+    public Comparator<TestAddress> longestFirst()
+    {
+        return new Comparator<TestAddress>()
+        {
+            public int compare( TestAddress a, TestAddress b )
+            {
+                long ea = expected( a );
+                long eb = expected( b );
+                return ea > eb ? -1 : ( ea == eb ? 0 : 1 );
+            }
+        };
+    }
+}
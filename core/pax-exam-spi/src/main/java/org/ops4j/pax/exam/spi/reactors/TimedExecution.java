@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import org.ops4j.pax.exam.TestTarget;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.container.DefaultRaw;
+
+/**
+ * Executes tests like {@link DefaultRaw#execute(TestTarget, TestAddress)} and records their duration in the
+ * {@link DurationHistory}.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+class TimedExecution
+{
+
+    private TimedExecution()
+    {
+        // utility class
+    }
+
+    static void execute( TestTarget target, TestAddress call )
+        throws Exception
+    {
+        long start = System.currentTimeMillis();
+        DefaultRaw.execute( target, call );
+        DurationHistory.getInstance().record( call.signature(), System.currentTimeMillis() - start );
+    }
+}
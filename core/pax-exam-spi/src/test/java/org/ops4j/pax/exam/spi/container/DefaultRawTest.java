@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.container;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.ops4j.pax.exam.spi.TestAddress;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class DefaultRawTest
+{
+
+    @Test
+    public void signaturesAreStable()
+    {
+        TestAddress a = DefaultRaw.call( Fixture.class, "first" );
+        TestAddress b = DefaultRaw.call( Fixture.class, "first" );
+        assertEquals( a.signature(), b.signature() );
+        assertTrue( a.signature().startsWith( "PaxExam-Executable-SIG" ) );
+        // hash of the call, not a counter.
+        assertEquals( "PaxExam-Executable-SIG".length() + 16, a.signature().length() );
+    }
+
+    @Test
+    public void signaturesAreDistinct()
+    {
+        Set<String> signatures = new HashSet<String>();
+        for( TestAddress call : DefaultRaw.call( Fixture.class ) )
+        {
+            assertTrue( signatures.add( call.signature() ) );
+        }
+        assertEquals( 2, signatures.size() );
+        assertFalse( signatures.contains( DefaultRaw.call( DefaultRawTest.class, "first" ).signature() ) );
+    }
+
+    @Test
+    public void signaturesDoNotDependOnEarlierCalls()
+    {
+        String second = DefaultRaw.call( Fixture.class, "second" ).signature();
+        TestAddress[] calls = DefaultRaw.call( Fixture.class );
+        assertEquals( DefaultRaw.call( Fixture.class, "first" ).signature(), calls[ 0 ].signature() );
+        assertEquals( second, calls[ 1 ].signature() );
+    }
+
+    public static class Fixture
+    {
+
+        public void first()
+        {
+        }
+
+        public void second( String s )
+        {
+        }
+    }
+}
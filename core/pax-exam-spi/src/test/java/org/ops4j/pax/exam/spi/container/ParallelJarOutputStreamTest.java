@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.container;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.TimeZone;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import org.junit.Test;
+import org.ops4j.io.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ParallelJarOutputStreamTest
+{
+
+    private static final int ENTRIES = 200;
+
+    @Test
+    public void deflatedInOrderWithoutDuplicates()
+        throws IOException
+    {
+        verify( write( ZipEntry.DEFLATED ), ZipEntry.DEFLATED );
+    }
+
+    @Test
+    public void stored()
+        throws IOException
+    {
+        verify( write( ZipEntry.STORED ), ZipEntry.STORED );
+    }
+
+    @Test
+    public void writesEntriesBeforeFinish()
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JarOutputStream jos = new ParallelJarOutputStream( out, ZipEntry.DEFLATED );
+        for( int i = 0; i < ParallelJarOutputStream.MAX_PENDING + 2; i++ )
+        {
+            jos.putNextEntry( new JarEntry( "org/foo/C" + i + ".class" ) );
+            jos.write( content( i ) );
+        }
+        jos.closeEntry();
+        // at least the first entry is out, not held back until the central directory is written
+        assertTrue( out.size() > content( 0 ).length / 100 );
+        jos.close();
+    }
+
+    @Test
+    public void sameBytesInEveryTimeZone()
+        throws IOException
+    {
+        TimeZone zone = TimeZone.getDefault();
+        try
+        {
+            TimeZone.setDefault( TimeZone.getTimeZone( "America/Los_Angeles" ) );
+            byte[] west = write( ZipEntry.STORED );
+            TimeZone.setDefault( TimeZone.getTimeZone( "Asia/Tokyo" ) );
+            assertArrayEquals( west, write( ZipEntry.STORED ) );
+        } finally
+        {
+            TimeZone.setDefault( zone );
+        }
+    }
+
+    @Test( expected = ZipException.class )
+    public void rejectsNamesTooLongForTheHeader()
+        throws IOException
+    {
+        // fits into a ZipEntry, but takes two bytes per character in UTF-8
+        char[] name = new char[0x8000];
+        Arrays.fill( name, '\u00e4' );
+        JarOutputStream jos = new ParallelJarOutputStream( new ByteArrayOutputStream(), ZipEntry.STORED );
+        jos.putNextEntry( new JarEntry( new String( name ) ) );
+    }
+
+    private byte[] write( int method )
+        throws IOException
+    {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().putValue( "Manifest-Version", "1.0" );
+        manifest.getMainAttributes().putValue( "Bundle-SymbolicName", "parallel" );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JarOutputStream jos = new ParallelJarOutputStream( out, manifest, method );
+        jos.putNextEntry( new JarEntry( "org/" ) );
+        for( int i = 0; i < ENTRIES; i++ )
+        {
+            jos.putNextEntry( new JarEntry( "org/foo/C" + i + ".class" ) );
+            jos.write( content( i ) );
+            // duplicates are ignored
+            jos.putNextEntry( new JarEntry( "org/foo/C" + i + ".class" ) );
+            jos.write( new byte[]{ 1, 2, 3 } );
+        }
+        jos.close();
+        return out.toByteArray();
+    }
+
+    private void verify( byte[] jar, int method )
+        throws IOException
+    {
+        JarInputStream jis = new JarInputStream( new ByteArrayInputStream( jar ) );
+        assertEquals( "parallel", jis.getManifest().getMainAttributes().getValue( "Bundle-SymbolicName" ) );
+        assertEquals( "org/", jis.getNextJarEntry().getName() );
+        for( int i = 0; i < ENTRIES; i++ )
+        {
+            JarEntry entry = jis.getNextJarEntry();
+            assertEquals( "org/foo/C" + i + ".class", entry.getName() );
+            assertEquals( method, entry.getMethod() );
+            assertArrayEquals( content( i ), read( jis ) );
+        }
+        assertNull( jis.getNextJarEntry() );
+
+        // central directory
+        File f = File.createTempFile( "parallel", ".jar" );
+        try
+        {
+            FileOutputStream fos = new FileOutputStream( f );
+            fos.write( jar );
+            fos.close();
+            ZipFile zip = new ZipFile( f );
+            try
+            {
+                assertEquals( ENTRIES + 2, zip.size() );
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                assertEquals( "META-INF/MANIFEST.MF", entries.nextElement().getName() );
+                assertEquals( "org/", entries.nextElement().getName() );
+                ZipEntry last = zip.getEntry( "org/foo/C" + ( ENTRIES - 1 ) + ".class" );
+                assertArrayEquals( content( ENTRIES - 1 ), read( zip.getInputStream( last ) ) );
+            } finally
+            {
+                zip.close();
+            }
+        } finally
+        {
+            f.delete();
+        }
+    }
+
+    private byte[] content( int i )
+    {
+        byte[] b = new byte[1000 + i * 37];
+        for( int k = 0; k < b.length; k++ )
+        {
+            b[ k ] = (byte) ( ( k * i ) % 13 );
+        }
+        return b;
+    }
+
+    private byte[] read( InputStream in )
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamUtils.copyStream( in, out, false );
+        return out.toByteArray();
+    }
+}
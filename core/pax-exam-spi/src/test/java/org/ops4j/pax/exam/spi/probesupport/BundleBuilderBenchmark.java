@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Random;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.ops4j.io.FileUtils;
+import org.ops4j.pax.exam.spi.container.DuplicateAwareJarOutputStream;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
+
+/**
+ * Compares jar assembly throughput of the former piped thread approach with the in-memory {@link ProbeBuffer}, using
+ * serial and parallel ({@link ParallelJarOutputStream}) compression.
+ * Not a unit test, run manually:
+ * <pre>
+ * java -cp ... org.ops4j.pax.exam.spi.probesupport.BundleBuilderBenchmark [files] [fileSize] [rounds]
+ * </pre>
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class BundleBuilderBenchmark
+{
+
+    private static final int PIPED = 0;
+    private static final int BUFFERED = 1;
+    private static final int PARALLEL = 2;
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        int files = args.length > 0 ? Integer.parseInt( args[ 0 ] ) : 2000;
+        int fileSize = args.length > 1 ? Integer.parseInt( args[ 1 ] ) : 4096;
+        int rounds = args.length > 2 ? Integer.parseInt( args[ 2 ] ) : 20;
+
+        File base = createTree( files, fileSize );
+        try
+        {
+            ResourceWriter writer = new ResourceWriter( base );
+            // warm up
+            for( int i = 0; i < 3; i++ )
+            {
+                drain( piped( writer ) );
+                drain( buffered( writer, false ) );
+                drain( buffered( writer, true ) );
+            }
+            report( "piped   ", files, fileSize, rounds, time( writer, rounds, PIPED ) );
+            report( "buffered", files, fileSize, rounds, time( writer, rounds, BUFFERED ) );
+            report( "parallel", files, fileSize, rounds, time( writer, rounds, PARALLEL ) );
+        } finally
+        {
+            FileUtils.delete( base );
+        }
+    }
+
+    private static long time( ResourceWriter writer, int rounds, int mode )
+        throws IOException
+    {
+        long start = System.nanoTime();
+        for( int i = 0; i < rounds; i++ )
+        {
+            drain( mode == PIPED ? piped( writer ) : buffered( writer, mode == PARALLEL ) );
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report( String name, int files, int fileSize, int rounds, long nanos )
+    {
+        double mb = (double) files * fileSize * rounds / ( 1024 * 1024 );
+        double seconds = nanos / 1e9;
+        System.out.println(
+            name + ": " + rounds + " probes in " + ( nanos / 1000000 ) + " ms, "
+            + String.format( "%.1f", mb / seconds ) + " MB/s input throughput"
+        );
+    }
+
+    /**
+     * The way BundleBuilder used to assemble the jar.
+     */
+    private static InputStream piped( final ResourceWriter writer )
+        throws IOException
+    {
+        final PipedOutputStream pout = new PipedOutputStream();
+        PipedInputStream fis = new PipedInputStream( pout );
+        new Thread()
+        {
+            public void run()
+            {
+                try
+                {
+                    JarOutputStream jos = new DuplicateAwareJarOutputStream( pout );
+                    writer.write( jos );
+                    jos.close();
+                } catch( IOException e )
+                {
+                    // ignore, as before.
+                } finally
+                {
+                    try
+                    {
+                        pout.close();
+                    } catch( IOException e )
+                    {
+                        // ignore
+                    }
+                }
+            }
+        }.start();
+        return fis;
+    }
+
+    private static InputStream buffered( ResourceWriter writer, boolean parallel )
+        throws IOException
+    {
+        ProbeBuffer buffer = new ProbeBuffer();
+        JarOutputStream jos = parallel
+                              ? new ParallelJarOutputStream( buffer, ZipEntry.DEFLATED )
+                              : new DuplicateAwareJarOutputStream( buffer );
+        writer.write( jos );
+        jos.close();
+        return buffer.toInputStream();
+    }
+
+    private static void drain( InputStream in )
+        throws IOException
+    {
+        byte[] b = new byte[8192];
+        while( in.read( b ) != -1 )
+        {
+            // consume like bnd would
+        }
+        in.close();
+    }
+
+    private static File createTree( int files, int fileSize )
+        throws IOException
+    {
+        File base = File.createTempFile( "benchmark", "" );
+        base.delete();
+        Random random = new Random( 42 );
+        byte[] content = new byte[fileSize];
+        for( int i = 0; i < files; i++ )
+        {
+            File f = new File( base, "org/ops4j/bench/p" + ( i % 50 ) + "/C" + i + ".class" );
+            f.getParentFile().mkdirs();
+            // half random, half constant so deflate has some work to do.
+            random.nextBytes( content );
+            for( int k = 0; k < fileSize / 2; k++ )
+            {
+                content[ k ] = (byte) ( k % 7 );
+            }
+            FileOutputStream out = new FileOutputStream( f );
+            try
+            {
+                out.write( content );
+            } finally
+            {
+                out.close();
+            }
+        }
+        return base;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.junit.Test;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.spi.container.ParallelJarOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class BundleBuilderTest
+{
+
+    @Test
+    public void equalProbesAreByteIdentical()
+        throws IOException
+    {
+        byte[] first = build();
+        byte[] second = build();
+        assertTrue( Arrays.equals( first, second ) );
+
+        ZipInputStream zin = new ZipInputStream( new ByteArrayInputStream( first ) );
+        int entries = 0;
+        ZipEntry entry;
+        while( ( entry = zin.getNextEntry() ) != null )
+        {
+            assertEquals( entry.getName(), ParallelJarOutputStream.ENTRY_TIME, entry.getTime() );
+            entries++;
+        }
+        assertEquals( 3, entries );
+    }
+
+    private byte[] build()
+        throws IOException
+    {
+        Properties instructions = new Properties();
+        instructions.setProperty( "Bundle-SymbolicName", "probe" );
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamUtils.copyStream( new BundleBuilder( instructions, new ResourceLocator()
+        {
+            public void write( JarOutputStream jos )
+                throws IOException
+            {
+                Manifest manifest = new Manifest();
+                manifest.getMainAttributes().putValue( "Manifest-Version", "1.0" );
+                manifest.getMainAttributes().putValue( "Bundle-SymbolicName", "probe" );
+                jos.putNextEntry( new JarEntry( JarFile.MANIFEST_NAME ) );
+                manifest.write( jos );
+                jos.putNextEntry( new JarEntry( "org/foo/Test.class" ) );
+                jos.write( new byte[]{ 1, 2, 3 } );
+                jos.putNextEntry( new JarEntry( "b.txt" ) );
+                jos.write( "content".getBytes( "UTF-8" ) );
+                jos.closeEntry();
+            }
+        }
+        ).build(), out, true
+        );
+        return out.toByteArray();
+    }
+}
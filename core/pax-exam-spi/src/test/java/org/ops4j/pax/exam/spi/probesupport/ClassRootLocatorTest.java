@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ClassRootLocatorTest
+{
+
+    @Test
+    public void locateFromCodeSource()
+        throws IOException
+    {
+        File root = ClassRootLocator.locate( ClassRootLocatorTest.class );
+        assertTrue( new File( root, ClassRootLocatorTest.class.getName().replace( '.', '/' ) + ".class" ).isFile() );
+    }
+
+    @Test
+    public void indexSkipsPrunedFolders()
+        throws IOException
+    {
+        File base = File.createTempFile( "index", "" );
+        base.delete();
+        try
+        {
+            touch( new File( base, "module/target/test-classes/org/foo/Bar.class" ) );
+            touch( new File( base, "module/target/surefire/org/foo/Bar.class" ) );
+            touch( new File( base, ".git/objects/org/foo/Bar.class" ) );
+
+            Map<String, List<File>> index = ClassRootLocator.buildIndex( base );
+            assertEquals( 1, index.get( "Bar.class" ).size() );
+
+            File root = ClassRootLocator.findRoot( index, "org/foo/Bar.class" );
+            assertEquals( new File( base, "module/target/test-classes" ).getAbsoluteFile(), root.getAbsoluteFile() );
+            assertNull( ClassRootLocator.findRoot( index, "org/other/Bar.class" ) );
+        } finally
+        {
+            FileUtils.delete( base );
+        }
+    }
+
+    @Test
+    public void prefersTestClassesThenShortestPath()
+    {
+        File a = new File( "/work/module/target/classes/org/foo/Bar.class" );
+        File b = new File( "/work/deeper/module/target/test-classes/org/foo/Bar.class" );
+        File c = new File( "/work/module/target/test-classes/org/foo/Bar.class" );
+        File d = new File( "/work/m/bin/org/foo/Bar.class" );
+        File expected = new File( "/work/module/target/test-classes" ).getAbsoluteFile();
+        assertEquals( expected, root( a, b, c, d ) );
+        assertEquals( expected, root( d, c, b, a ) );
+        assertEquals( new File( "/work/m/bin" ).getAbsoluteFile(), root( a, d ) );
+    }
+
+    private File root( File... candidates )
+    {
+        Map<String, List<File>> index = new HashMap<String, List<File>>();
+        index.put( "Bar.class", Arrays.asList( candidates ) );
+        return ClassRootLocator.findRoot( index, "org/foo/Bar.class" ).getAbsoluteFile();
+    }
+
+    private void touch( File f )
+        throws IOException
+    {
+        f.getParentFile().mkdirs();
+        f.createNewFile();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContentDigestTest
+{
+
+    @Test
+    public void boundariesAreUnambiguous()
+        throws IOException
+    {
+        assertFalse( digest( "a", "bc" ).equals( digest( "ab", "c" ) ) );
+        // a name ending in a zero byte must not look like a separator
+        assertFalse( digest( "a\u0000", "b" ).equals( digest( "a", "\u0000b" ) ) );
+        assertEquals( digest( "a", "bc" ), digest( "a", "bc" ) );
+    }
+
+    @Test
+    public void streamsDigestTheSameHoweverTheyAreRead()
+        throws IOException
+    {
+        byte[] content = new byte[20000];
+        for( int i = 0; i < content.length; i++ )
+        {
+            content[ i ] = (byte) i;
+        }
+        InputStream trickle = new ByteArrayInputStream( content )
+        {
+            @Override
+            public synchronized int read( byte[] b, int off, int len )
+            {
+                return super.read( b, off, Math.min( len, 7 ) );
+            }
+        };
+        assertEquals( new ContentDigest().update( new ByteArrayInputStream( content ) ).toHex(),
+                      new ContentDigest().update( trickle ).toHex()
+        );
+    }
+
+    private String digest( String name, String content )
+        throws IOException
+    {
+        return new ContentDigest().update( name ).update( new ByteArrayInputStream( content.getBytes( "UTF-8" ) ) )
+            .toHex();
+    }
+}
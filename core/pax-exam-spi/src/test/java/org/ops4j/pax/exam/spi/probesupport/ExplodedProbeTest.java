@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.jar.Manifest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ExplodedProbeTest
+{
+
+    private File m_base;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_base = File.createTempFile( "exploded", "" );
+        m_base.delete();
+        new File( m_base, "org/foo" ).mkdirs();
+        new File( m_base, "org/foo/Bar.class" ).createNewFile();
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_base );
+    }
+
+    @Test
+    public void referencesClassesInPlace()
+        throws IOException
+    {
+        Properties headers = new Properties();
+        headers.setProperty( "PaxExam-Executable", "PaxExam-Executable-SIG1," );
+        File folder = ExplodedProbe.explode( m_base, headers );
+        try
+        {
+            assertFalse( new File( m_base, "META-INF" ).exists() );
+            assertEquals( 1, folder.list().length );
+            assertEquals( 1, new File( folder, "META-INF" ).list().length );
+
+            FileInputStream in = new FileInputStream( new File( folder, "META-INF/MANIFEST.MF" ) );
+            Manifest manifest = new Manifest( in );
+            in.close();
+            assertEquals( "*", manifest.getMainAttributes().getValue( "DynamicImport-Package" ) );
+            assertEquals( "PaxExam-Executable-SIG1,", manifest.getMainAttributes().getValue( "PaxExam-Executable" ) );
+            assertEquals( "\"external:" + m_base.getCanonicalPath() + "\"",
+                          manifest.getMainAttributes().getValue( "Bundle-ClassPath" )
+            );
+        } finally
+        {
+            FileUtils.delete( folder );
+        }
+    }
+
+    @Test( expected = RuntimeException.class )
+    public void refusesToOverwriteUserManifest()
+        throws IOException
+    {
+        new File( m_base, "META-INF" ).mkdirs();
+        new File( m_base, "META-INF/MANIFEST.MF" ).createNewFile();
+        ExplodedProbe.explode( m_base, new Properties() );
+    }
+}
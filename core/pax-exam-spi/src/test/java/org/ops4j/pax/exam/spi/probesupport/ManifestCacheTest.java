@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ManifestCacheTest
+{
+
+    @Test
+    public void keyIgnoresProbeHeaders()
+        throws IOException
+    {
+        ManifestCache cache = new ManifestCache( 2 );
+        ProbeBuffer jar = jar( "a" );
+        String key = cache.key( jar, instructions( "PaxExam-Executable-SIG1" ) );
+        assertEquals( key, cache.key( jar, instructions( "PaxExam-Executable-SIG2" ) ) );
+        assertFalse( key.equals( cache.key( jar( "b" ), instructions( "PaxExam-Executable-SIG1" ) ) ) );
+
+        Properties other = instructions( "PaxExam-Executable-SIG1" );
+        other.setProperty( "Bundle-SymbolicName", "other" );
+        assertFalse( key.equals( cache.key( jar, other ) ) );
+    }
+
+    @Test
+    public void patchReplacesProbeHeaders()
+        throws IOException
+    {
+        ManifestCache cache = new ManifestCache( 2 );
+        Manifest computed = new Manifest();
+        computed.getMainAttributes().putValue( "Manifest-Version", "1.0" );
+        computed.getMainAttributes().putValue( "Import-Package", "org.junit" );
+        computed.getMainAttributes().putValue( "PaxExam-Executable", "PaxExam-Executable-SIG1," );
+        cache.put( "k", computed );
+
+        Manifest cached = cache.get( "k" );
+        assertNull( cached.getMainAttributes().getValue( "PaxExam-Executable" ) );
+
+        InputStream patchedBundle = cache.patch(
+            cached, instructions( "PaxExam-Executable-SIG2" ), jar( "a" ), ZipEntry.DEFLATED
+        );
+        JarInputStream bundle = new JarInputStream( patchedBundle );
+        Manifest patched = bundle.getManifest();
+        assertEquals( "org.junit", patched.getMainAttributes().getValue( "Import-Package" ) );
+        assertEquals( "PaxExam-Executable-SIG2,", patched.getMainAttributes().getValue( "PaxExam-Executable" ) );
+        assertEquals( "org.foo.Test;test", patched.getMainAttributes().getValue( "PaxExam-Executable-SIG2" ) );
+        JarEntry entry = bundle.getNextJarEntry();
+        assertEquals( "a.txt", entry.getName() );
+        assertNull( bundle.getNextJarEntry() );
+
+        assertNull( cache.get( "unknown" ) );
+    }
+
+    private Properties instructions( String signature )
+    {
+        Properties p = new Properties();
+        p.setProperty( "Bundle-SymbolicName", "probe" );
+        p.setProperty( "PaxExam-Executable", signature + "," );
+        p.setProperty( signature, "org.foo.Test;test" );
+        return p;
+    }
+
+    private ProbeBuffer jar( String content )
+        throws IOException
+    {
+        ProbeBuffer buffer = new ProbeBuffer();
+        JarOutputStream jos = new JarOutputStream( buffer );
+        jos.putNextEntry( new JarEntry( "a.txt" ) );
+        jos.write( content.getBytes( "UTF-8" ) );
+        jos.close();
+        return buffer;
+    }
+}
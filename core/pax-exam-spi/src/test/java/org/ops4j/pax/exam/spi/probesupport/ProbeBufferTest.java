@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeBufferTest
+{
+
+    @Test
+    public void capacityIsCappedAndDecays()
+    {
+        ProbeBuffer.built( Integer.MAX_VALUE );
+        assertEquals( ProbeBuffer.MAX_CAPACITY, ProbeBuffer.capacity() );
+
+        for( int i = 0; i < 50; i++ )
+        {
+            ProbeBuffer.built( 100 * 1024 );
+        }
+        int capacity = ProbeBuffer.capacity();
+        assertTrue( capacity >= 100 * 1024 );
+        assertTrue( capacity < 200 * 1024 );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+import org.ops4j.io.StreamUtils;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeCacheTest
+{
+
+    private File m_folder;
+    private File m_base;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_folder = File.createTempFile( "probecache", "" );
+        m_folder.delete();
+        m_base = new File( m_folder, "classes" );
+        new File( m_base, "foo" ).mkdirs();
+        write( new File( m_base, "foo/Bar.class" ), "bar" );
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_folder );
+    }
+
+    @Test
+    public void keyIsStable()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), Long.MAX_VALUE, Long.MAX_VALUE );
+        assertEquals( cache.key( m_base, headers( "SIG0" ) ), cache.key( m_base, headers( "SIG0" ) ) );
+    }
+
+    @Test
+    public void keyChangesWithContentAndHeaders()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), Long.MAX_VALUE, Long.MAX_VALUE );
+        String key = cache.key( m_base, headers( "SIG0" ) );
+        assertFalse( key.equals( cache.key( m_base, headers( "SIG1" ) ) ) );
+
+        write( new File( m_base, "foo/Bar.class" ), "changed" );
+        assertFalse( key.equals( cache.key( m_base, headers( "SIG0" ) ) ) );
+    }
+
+    @Test
+    public void keyIgnoresHiddenFolders()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), Long.MAX_VALUE, Long.MAX_VALUE );
+        String key = cache.key( m_base, headers( "SIG0" ) );
+        new File( m_base, ".svn" ).mkdirs();
+        write( new File( m_base, ".svn/entries" ), "changed" );
+        assertEquals( key, cache.key( m_base, headers( "SIG0" ) ) );
+    }
+
+    @Test
+    public void storeAndLoad()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), Long.MAX_VALUE, Long.MAX_VALUE );
+        String key = cache.key( m_base, headers( "SIG0" ) );
+        assertNull( cache.load( key ) );
+
+        assertEquals( "probe", read( cache.store( key, new ByteArrayInputStream( "probe".getBytes() ) ) ) );
+        assertEquals( "probe", read( cache.load( key ) ) );
+    }
+
+    @Test
+    public void evictBySize()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), 8, Long.MAX_VALUE );
+        read( cache.store( "a", new ByteArrayInputStream( "12345".getBytes() ) ) );
+        new File( m_folder, "cache/a.jar" ).setLastModified( System.currentTimeMillis() - 10000 );
+        read( cache.store( "b", new ByteArrayInputStream( "12345".getBytes() ) ) );
+
+        assertNull( cache.load( "a" ) );
+        assertNotNull( cache.load( "b" ) );
+    }
+
+    @Test
+    public void evictByAge()
+        throws IOException
+    {
+        ProbeCache cache = new ProbeCache( new File( m_folder, "cache" ), Long.MAX_VALUE, 1000 );
+        read( cache.store( "a", new ByteArrayInputStream( "12345".getBytes() ) ) );
+        new File( m_folder, "cache/a.jar" ).setLastModified( System.currentTimeMillis() - 10000 );
+        cache.evict();
+
+        assertNull( cache.load( "a" ) );
+    }
+
+    private Properties headers( String sig )
+    {
+        Properties p = new Properties();
+        p.put( sig, "foo.Bar;test" );
+        p.put( "PaxExam-Executable", sig + "," );
+        return p;
+    }
+
+    private void write( File f, String content )
+        throws IOException
+    {
+        FileOutputStream out = new FileOutputStream( f );
+        try
+        {
+            out.write( content.getBytes() );
+        } finally
+        {
+            out.close();
+        }
+    }
+
+    private String read( InputStream in )
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StreamUtils.copyStream( in, out, true );
+        return new String( out.toByteArray() );
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import org.junit.Test;
+import org.ops4j.pax.exam.raw.extender.Constants;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.container.ClassMethodTestAddress;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeIndexWriterTest
+{
+
+    @Test
+    public void indexCanBeLoadedAsProperties()
+        throws IOException
+    {
+        List<TestAddress> tests = new ArrayList<TestAddress>();
+        tests.add( new ClassMethodTestAddress( "PaxExam-Executable-SIGa", ProbeIndexWriterTest.class, "first" ) );
+        tests.add( new ClassMethodTestAddress( "PaxExam-Executable-SIGb", ProbeIndexWriter.class, "second" ) );
+        ProbeIndexWriter writer = new ProbeIndexWriter( tests );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JarOutputStream jos = new JarOutputStream( out );
+        writer.write( jos );
+        jos.close();
+
+        JarInputStream jis = new JarInputStream( new ByteArrayInputStream( out.toByteArray() ) );
+        assertEquals( Constants.PROBE_INDEX_RESOURCE, jis.getNextJarEntry().getName() );
+        Properties index = new Properties();
+        index.load( jis );
+
+        assertEquals( writer.getIndex(), index );
+        assertEquals( ProbeIndexWriterTest.class.getName() + ";first", index.getProperty( "PaxExam-Executable-SIGa" ) );
+        assertEquals( 2, index.size() );
+    }
+}
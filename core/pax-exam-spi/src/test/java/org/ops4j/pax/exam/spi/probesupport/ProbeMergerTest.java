@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.TestProbeBuilder;
+import org.ops4j.pax.exam.spi.container.ClassMethodTestAddress;
+import org.ops4j.pax.exam.spi.probesupport.slim.SlimRoot;
+import org.ops4j.pax.exam.spi.probesupport.slim.SlimUsed;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ProbeMergerTest
+{
+
+    @Test
+    public void mergesTestsOfAllProbes()
+    {
+        TestAddress shared = new ClassMethodTestAddress( "SIG-shared", SlimRoot.class, "call" );
+        List<TestProbeBuilder> probes = new ArrayList<TestProbeBuilder>();
+        probes.add( new TestProbeBuilderImpl().addTest( shared ).setAnchor( SlimRoot.class ) );
+        probes.add( new TestProbeBuilderImpl()
+                        .addTest( shared, new ClassMethodTestAddress( "SIG-used", SlimUsed.class, "toString" ) )
+                        .setAnchor( SlimUsed.class )
+        );
+
+        List<TestProbeBuilder> merged = ProbeMerger.merge( probes );
+        assertEquals( 1, merged.size() );
+        TestAddress[] tests = merged.get( 0 ).getTests();
+        assertEquals( 2, tests.length );
+        assertEquals( "SIG-shared", tests[ 0 ].signature() );
+        assertEquals( "SIG-used", tests[ 1 ].signature() );
+    }
+
+    @Test
+    public void keepsSingleProbe()
+    {
+        List<TestProbeBuilder> probes = new ArrayList<TestProbeBuilder>();
+        probes.add( new TestProbeBuilderImpl().setAnchor( SlimRoot.class ) );
+        assertSame( probes.get( 0 ), ProbeMerger.merge( probes ).get( 0 ) );
+    }
+}
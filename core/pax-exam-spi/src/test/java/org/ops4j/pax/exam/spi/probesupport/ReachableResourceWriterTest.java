@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.jar.JarOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+import org.ops4j.io.StreamUtils;
+import org.ops4j.pax.exam.spi.probesupport.slim.SlimRoot;
+import org.ops4j.pax.exam.spi.probesupport.slim.SlimUnused;
+import org.ops4j.pax.exam.spi.probesupport.slim.SlimUsed;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ReachableResourceWriterTest
+{
+
+    private File m_base;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_base = File.createTempFile( "slim", "" );
+        m_base.delete();
+        for( Class c : new Class[]{ SlimRoot.class, SlimUsed.class, SlimUnused.class } )
+        {
+            String name = c.getName().replace( '.', '/' ) + ".class";
+            copy( new File( ClassRootLocator.locate( c ), name ), new File( m_base, name ) );
+        }
+        new File( m_base, "conf" ).mkdirs();
+        new File( m_base, "conf/beans.xml" ).createNewFile();
+        new File( m_base, "notes.txt" ).createNewFile();
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_base );
+    }
+
+    @Test
+    public void writesReachableClassesAndAllResources()
+        throws IOException
+    {
+        Set<String> names = write( Collections.<String>emptyList() );
+        assertEquals(
+            new HashSet<String>( Arrays.asList(
+                "org/ops4j/pax/exam/spi/probesupport/slim/SlimRoot.class",
+                "org/ops4j/pax/exam/spi/probesupport/slim/SlimUsed.class",
+                "conf/beans.xml",
+                "notes.txt"
+            )
+            ), names
+        );
+    }
+
+    @Test
+    public void writesMatchingResourcesOnly()
+        throws IOException
+    {
+        Set<String> names = write( Arrays.asList( "**/*.xml" ) );
+        assertTrue( names.contains( "conf/beans.xml" ) );
+        assertFalse( names.contains( "notes.txt" ) );
+        assertFalse( names.contains( "org/ops4j/pax/exam/spi/probesupport/slim/SlimUnused.class" ) );
+    }
+
+    private Set<String> write( List<String> resources )
+        throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JarOutputStream jos = new JarOutputStream( out );
+        new ReachableResourceWriter( m_base, Arrays.asList( SlimRoot.class.getName() ), resources ).write( jos );
+        jos.close();
+
+        Set<String> names = new HashSet<String>();
+        JarInputStream jis = new JarInputStream( new ByteArrayInputStream( out.toByteArray() ) );
+        JarEntry entry;
+        while( ( entry = jis.getNextJarEntry() ) != null )
+        {
+            names.add( entry.getName() );
+        }
+        return names;
+    }
+
+    private void copy( File from, File to )
+        throws IOException
+    {
+        to.getParentFile().mkdirs();
+        StreamUtils.copyStream( new FileInputStream( from ), new FileOutputStream( to ), true );
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.probesupport.slim;
+
+/**
+ * Fixture for reachability tests: references {@link SlimUsed} only.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class SlimRoot
+{
+
+    public String call()
+    {
+        return new SlimUsed().toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class BoundedExecutorTest
+{
+
+    @Test
+    public void resultsInTaskOrder()
+        throws Exception
+    {
+        List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for( int i = 0; i < 20; i++ )
+        {
+            final int value = i;
+            tasks.add( new Callable<Integer>()
+            {
+                public Integer call()
+                    throws Exception
+                {
+                    Thread.sleep( ( 20 - value ) % 5 );
+                    return value;
+                }
+            }
+            );
+        }
+        for( int threads = 1; threads <= 4; threads += 3 )
+        {
+            BoundedExecutor executor = new BoundedExecutor( threads, "test" );
+            List<Integer> results = executor.invokeAll( tasks );
+            executor.shutdown();
+            for( int i = 0; i < 20; i++ )
+            {
+                assertEquals( (Integer) i, results.get( i ) );
+            }
+        }
+    }
+
+    @Test
+    public void failsFast()
+        throws Exception
+    {
+        final AtomicInteger started = new AtomicInteger();
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for( int i = 0; i < 50; i++ )
+        {
+            final int value = i;
+            tasks.add( new Callable<Object>()
+            {
+                public Object call()
+                    throws Exception
+                {
+                    started.incrementAndGet();
+                    if( value == 0 )
+                    {
+                        throw new IllegalStateException( "boom" );
+                    }
+                    Thread.sleep( 10 );
+                    return null;
+                }
+            }
+            );
+        }
+        BoundedExecutor executor = new BoundedExecutor( 2, "test" );
+        try
+        {
+            executor.invokeAll( tasks );
+            fail( "expected failure" );
+        } catch( IllegalStateException e )
+        {
+            assertEquals( "boom", e.getMessage() );
+        } finally
+        {
+            executor.shutdown();
+        }
+        assertTrue( started.get() < 50 );
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import org.junit.Test;
+import org.ops4j.pax.exam.Option;
+
+import static org.junit.Assert.*;
+import static org.ops4j.pax.exam.CoreOptions.*;
+import static org.ops4j.pax.exam.options.ReUsePolicy.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContainerPoolTest
+{
+
+    @Test
+    public void reusesContainersOfEqualConfigurations()
+    {
+        ContainerPool pool = new ContainerPool( 60000 );
+        FakeContainerFactory factory = new FakeContainerFactory();
+
+        ContainerPool.Lease first = pool.lease( factory, new Option[]{ systemProperty( "a" ).value( "1" ) } );
+        first.release();
+        ContainerPool.Lease second = pool.lease( factory, new Option[]{
+            systemProperty( "a" ).value( "1" ), executionPolicy().reuseContainer( ALWAYS )
+        }
+        );
+        assertSame( first.getContainers()[ 0 ], second.getContainers()[ 0 ] );
+        assertEquals( 1, factory.m_created.size() );
+        assertEquals( 1, factory.m_created.get( 0 ).m_cleanups );
+
+        // leased containers are exclusive
+        ContainerPool.Lease third = pool.lease( factory, new Option[]{ systemProperty( "a" ).value( "1" ) } );
+        assertNotSame( second.getContainers()[ 0 ], third.getContainers()[ 0 ] );
+
+        pool.lease( factory, new Option[]{ systemProperty( "a" ).value( "2" ) } );
+        assertEquals( 3, factory.m_created.size() );
+
+        pool.shutdown();
+        for( FakeContainerFactory.FakeContainer container : factory.m_created )
+        {
+            assertEquals( 1, container.m_starts );
+            assertEquals( 1, container.m_stops );
+        }
+    }
+
+    @Test
+    public void stopsIdleContainers()
+        throws InterruptedException
+    {
+        ContainerPool pool = new ContainerPool( 10 );
+        FakeContainerFactory factory = new FakeContainerFactory();
+        pool.lease( factory, new Option[0] ).release();
+        Thread.sleep( 20 );
+        pool.reap();
+        assertEquals( 1, factory.m_created.get( 0 ).m_stops );
+
+        pool.lease( factory, new Option[0] );
+        assertEquals( 2, factory.m_created.size() );
+        pool.shutdown();
+    }
+}
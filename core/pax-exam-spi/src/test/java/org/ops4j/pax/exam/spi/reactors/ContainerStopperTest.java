@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.spi.KillableTestContainer;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ContainerStopperTest
+{
+
+    @Test
+    public void stopsConcurrentlyAndKillsLateContainers()
+    {
+        List<TestContainer> containers = new ArrayList<TestContainer>();
+        SlowContainer slow = new SlowContainer( 400 );
+        SlowContainer hanging = new SlowContainer( 10000 );
+        containers.add( slow );
+        containers.add( new SlowContainer( 400 ) );
+        containers.add( hanging );
+
+        long took = new ContainerStopper( 1000 ).stop( containers );
+        // one after another would take 1800 ms
+        assertTrue( "took " + took, took < 1600 );
+        assertFalse( slow.m_killed );
+        assertTrue( hanging.m_killed );
+        hanging.m_release.countDown();
+    }
+
+    private static class SlowContainer extends FakeContainerFactory.FakeContainer implements KillableTestContainer
+    {
+
+        private final long m_millis;
+        private final CountDownLatch m_release = new CountDownLatch( 1 );
+        private volatile boolean m_killed;
+
+        private SlowContainer( long millis )
+        {
+            super( false );
+            m_millis = millis;
+        }
+
+        @Override
+        public TestContainer stop()
+        {
+            try
+            {
+                m_release.await( m_millis, TimeUnit.MILLISECONDS );
+            } catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+            return super.stop();
+        }
+
+        public void kill()
+        {
+            m_killed = true;
+        }
+    }
+}
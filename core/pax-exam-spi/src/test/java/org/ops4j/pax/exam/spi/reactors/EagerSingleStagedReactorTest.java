@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Test;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.TestContainerException;
+import org.ops4j.pax.exam.spi.TestProbeBuilder;
+import org.ops4j.pax.exam.spi.container.ClassMethodTestAddress;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class EagerSingleStagedReactorTest
+{
+
+    @After
+    public void reset()
+    {
+        System.getProperties().remove( EagerSingleStagedReactor.ASYNC );
+        System.getProperties().remove( EagerSingleStagedReactor.IN_FLIGHT );
+    }
+
+    @Test
+    public void asyncStagingReportsReadiness()
+        throws Exception
+    {
+        System.setProperty( EagerSingleStagedReactor.ASYNC, "true" );
+        FakeContainerFactory factory = new FakeContainerFactory();
+        EagerSingleStagedReactor reactor = new EagerSingleStagedReactor( factory, configs( 2 ), new ArrayList<TestProbeBuilder>() );
+        List<TestContainer> ready = new ArrayList<TestContainer>();
+        for( Future<TestContainer> f : reactor.getReadiness() )
+        {
+            ready.add( f.get() );
+        }
+        assertEquals( factory.m_created, ready );
+        reactor.tearDown();
+        for( FakeContainerFactory.FakeContainer container : factory.m_created )
+        {
+            assertEquals( 1, container.m_starts );
+            assertEquals( 1, container.m_stops );
+        }
+    }
+
+    @Test
+    public void asyncStagingFailsOnInvoke()
+        throws Exception
+    {
+        System.setProperty( EagerSingleStagedReactor.ASYNC, "true" );
+        FakeContainerFactory factory = new FakeContainerFactory();
+        factory.m_failingStart = 0;
+        EagerSingleStagedReactor reactor = new EagerSingleStagedReactor( factory, configs( 2 ), new ArrayList<TestProbeBuilder>() );
+        try
+        {
+            reactor.invoke( new ClassMethodTestAddress( "PaxExam-Executable-SIG", EagerSingleStagedReactorTest.class, "x" ) );
+            fail( "expected failure" );
+        } catch( TestContainerException e )
+        {
+            assertEquals( "does not start", e.getMessage() );
+        }
+        try
+        {
+            reactor.getReadiness().get( 1 ).get();
+            fail( "expected failure" );
+        } catch( Exception e )
+        {
+            // never started
+        }
+        reactor.tearDown();
+        // nothing is stopped twice
+        assertEquals( 1, factory.m_created.get( 0 ).m_stops );
+    }
+
+    @Test
+    public void singleAssertionErrorIsRethrownAsIs()
+        throws Exception
+    {
+        System.setProperty( EagerSingleStagedReactor.IN_FLIGHT, "2" );
+        FakeContainerFactory factory = new FakeContainerFactory();
+        EagerSingleStagedReactor reactor = new EagerSingleStagedReactor( factory, configs( 2 ), new ArrayList<TestProbeBuilder>() );
+        AssertionError failure = new AssertionError( "expected:<1> but was:<2>" );
+        factory.m_created.get( 1 ).m_testFailure = failure;
+        try
+        {
+            reactor.invoke( new ClassMethodTestAddress( "PaxExam-Executable-SIG", EagerSingleStagedReactorTest.class, "x" ) );
+            fail( "expected failure" );
+        } catch( AssertionError e )
+        {
+            assertSame( failure, e );
+        } finally
+        {
+            reactor.tearDown();
+        }
+    }
+
+    @Test( expected = TestContainerException.class )
+    public void syncStagingFailsRightAway()
+    {
+        FakeContainerFactory factory = new FakeContainerFactory();
+        factory.m_failingStart = 1;
+        new EagerSingleStagedReactor( factory, configs( 2 ), new ArrayList<TestProbeBuilder>() );
+    }
+
+    private List<Option[]> configs( int count )
+    {
+        List<Option[]> configs = new ArrayList<Option[]>();
+        for( int i = 0; i < count; i++ )
+        {
+            configs.add( new Option[0] );
+        }
+        return configs;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.OptionDescription;
+import org.ops4j.pax.exam.TestContainer;
+import org.ops4j.pax.exam.TestContainerException;
+import org.ops4j.pax.exam.TestContainerFactory;
+import org.ops4j.pax.exam.raw.extender.ProbeInvoker;
+import org.ops4j.pax.exam.spi.BuildingOptionDescription;
+
+/**
+ * Creates containers that only count what is done with them.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+class FakeContainerFactory implements TestContainerFactory
+{
+
+    final List<FakeContainer> m_created = new CopyOnWriteArrayList<FakeContainer>();
+    volatile int m_failingStart = -1;
+
+    public OptionDescription[] parse( Option... options )
+    {
+        return new OptionDescription[]{ new BuildingOptionDescription( options ) };
+    }
+
+    public TestContainer createContainer( OptionDescription option )
+    {
+        FakeContainer container = new FakeContainer( m_created.size() == m_failingStart );
+        m_created.add( container );
+        return container;
+    }
+
+    static class FakeContainer implements TestContainer
+    {
+
+        private final boolean m_fail;
+        volatile int m_starts;
+        volatile int m_stops;
+        volatile int m_cleanups;
+        volatile Error m_testFailure;
+
+        FakeContainer( boolean fail )
+        {
+            m_fail = fail;
+        }
+
+        public void setBundleStartLevel( long bundleId, int startLevel )
+        {
+        }
+
+        public TestContainer start()
+        {
+            m_starts++;
+            if( m_fail )
+            {
+                throw new TestContainerException( "does not start" );
+            }
+            return this;
+        }
+
+        public TestContainer stop()
+        {
+            m_stops++;
+            return this;
+        }
+
+        public void waitForState( long bundleId, int state, long timeoutInMillis )
+        {
+        }
+
+        public <T> T getService( Class<T> serviceType, String filter, long timeoutInMillis )
+        {
+            if( serviceType != ProbeInvoker.class )
+            {
+                return null;
+            }
+            return serviceType.cast( new ProbeInvoker()
+            {
+                public void call()
+                {
+                    if( m_testFailure != null )
+                    {
+                        throw m_testFailure;
+                    }
+                }
+            }
+            );
+        }
+
+        public long install( InputStream stream )
+        {
+            return -1;
+        }
+
+        public void cleanup()
+        {
+            m_cleanups++;
+        }
+    }
+}
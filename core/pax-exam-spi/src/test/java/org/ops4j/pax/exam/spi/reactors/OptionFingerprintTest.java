@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.ops4j.pax.exam.Option;
+
+import static org.junit.Assert.*;
+import static org.ops4j.pax.exam.CoreOptions.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class OptionFingerprintTest
+{
+
+    @Test
+    public void equalRegardlessOfImmediateRepetition()
+    {
+        OptionFingerprint a = OptionFingerprint.of( systemProperty( "a" ).value( "1" ), bundle( "file:foo.jar" ) );
+        OptionFingerprint b = OptionFingerprint.of(
+            composite( systemProperty( "a" ).value( "1" ), bundle( "file:foo.jar" ) ), bundle( "file:foo.jar" )
+        );
+        assertEquals( a, b );
+        assertEquals( a.hashCode(), b.hashCode() );
+        assertFalse( a.equals( OptionFingerprint.of( systemProperty( "a" ).value( "2" ), bundle( "file:foo.jar" ) ) ) );
+    }
+
+    @Test
+    public void reorderedEquivalentConfigurationsAreEqual()
+    {
+        OptionFingerprint a = OptionFingerprint.of(
+            systemProperty( "a" ).value( "1" ), systemProperty( "b" ).value( "2" ), bootDelegationPackage( "sun.*" ),
+            bundle( "file:a.jar" ), bundle( "file:b.jar" )
+        );
+        OptionFingerprint b = OptionFingerprint.of(
+            bundle( "file:a.jar" ), bootDelegationPackage( "sun.*" ), systemProperty( "b" ).value( "2" ),
+            systemProperty( "a" ).value( "0" ), bundle( "file:b.jar" ), systemProperty( "a" ).value( "1" )
+        );
+        assertEquals( a, b );
+    }
+
+    @Test
+    public void installOrderAndLastValueMatter()
+    {
+        assertFalse( OptionFingerprint.of( systemProperty( "a" ).value( "1" ), systemProperty( "a" ).value( "2" ) ).equals(
+            OptionFingerprint.of( systemProperty( "a" ).value( "2" ), systemProperty( "a" ).value( "1" ) )
+        )
+        );
+        assertFalse( OptionFingerprint.of( bundle( "file:a.jar" ), bundle( "file:b.jar" ) ).equals(
+            OptionFingerprint.of( bundle( "file:b.jar" ), bundle( "file:a.jar" ) )
+        )
+        );
+    }
+
+    @Test
+    public void mapsAreComparedByContent()
+    {
+        Map<String, String> first = new LinkedHashMap<String, String>();
+        first.put( "a", "1" );
+        first.put( "b", "2" );
+        Map<String, String> second = new LinkedHashMap<String, String>();
+        second.put( "b", "2" );
+        second.put( "a", "1" );
+        assertEquals( OptionFingerprint.of( new MapOption( first ) ), OptionFingerprint.of( new MapOption( second ) ) );
+    }
+
+    @Test
+    public void distinctKeepsFirstOfEqualConfigurations()
+    {
+        List<Option[]> configurations = new ArrayList<Option[]>();
+        configurations.add( new Option[]{ systemProperty( "a" ).value( "1" ), systemProperty( "b" ).value( "2" ) } );
+        configurations.add( new Option[]{ systemProperty( "c" ).value( "3" ) } );
+        configurations.add( new Option[]{ systemProperty( "a" ).value( "1" ), systemProperty( "b" ).value( "2" ) } );
+        configurations.add( new Option[]{ systemProperty( "b" ).value( "2" ), systemProperty( "a" ).value( "1" ) } );
+        configurations.add( new Option[]{ systemProperty( "a" ).value( "2" ), systemProperty( "b" ).value( "2" ) } );
+
+        List<Option[]> distinct = OptionFingerprint.distinct( configurations );
+        assertEquals( 3, distinct.size() );
+        assertSame( configurations.get( 0 ), distinct.get( 0 ) );
+        assertSame( configurations.get( 1 ), distinct.get( 1 ) );
+        assertSame( configurations.get( 4 ), distinct.get( 2 ) );
+    }
+
+    private static class MapOption implements Option
+    {
+
+        private final Map<String, String> m_values;
+
+        MapOption( Map<String, String> values )
+        {
+            m_values = values;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.ops4j.pax.exam.spi.ReactorStager;
+import org.ops4j.pax.exam.spi.StagedExamReactor;
+import org.ops4j.pax.exam.spi.TestAddress;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShardWorkerTest
+{
+
+    private static final List<String> s_calls = new ArrayList<String>();
+
+    @Test
+    public void servesStagedReactors()
+    {
+        s_calls.clear();
+        ShardWorker worker = new ShardWorker();
+        assertNull( worker.serve( new String[]{ ShardWorker.STAGE, "1", Stager.class.getName(), "recipe" } ) );
+        assertNull( worker.serve( new String[]{ ShardWorker.INVOKE, "1", "SIG", "Foo;bar" } ) );
+        Throwable failure = worker.serve( new String[]{ ShardWorker.INVOKE, "1", "FAIL", "Foo;fail" } );
+        assertEquals( "failed", failure.getMessage() );
+        assertNull( worker.serve( new String[]{ ShardWorker.TEAR_DOWN, "1" } ) );
+        assertEquals( "[stage recipe, SIG Foo;bar, FAIL Foo;fail, tearDown]", s_calls.toString() );
+
+        assertTrue( worker.serve( new String[]{ ShardWorker.INVOKE, "1", "SIG", "Foo;bar" } ) instanceof IllegalStateException );
+    }
+
+    @Test
+    public void replacesFailuresThatCannotBeSent()
+    {
+        Throwable failure = new IllegalStateException( "outer", new NotSerializable() );
+        Throwable portable = ShardWorker.portable( failure );
+        assertNotSame( failure, portable );
+        assertEquals( failure.toString(), portable.getMessage() );
+        assertArrayEquals( failure.getStackTrace(), portable.getStackTrace() );
+
+        Throwable serializable = new IllegalStateException( "fine" );
+        assertSame( serializable, ShardWorker.portable( serializable ) );
+    }
+
+    @Test
+    public void onlyConnectionsWithTokenAreAccepted()
+        throws IOException
+    {
+        ServerSocket server = new ServerSocket( 0, 2, InetAddress.getByName( "127.0.0.1" ) );
+        try
+        {
+            assertTrue( connect( server, "0123456789abcdef" ) );
+            assertFalse( connect( server, "0123456789abcdeX" ) );
+            assertFalse( connect( server, "0123" ) );
+        } finally
+        {
+            server.close();
+        }
+    }
+
+    private boolean connect( ServerSocket server, String sent )
+        throws IOException
+    {
+        Socket client = new Socket( server.getInetAddress(), server.getLocalPort() );
+        Socket accepted = server.accept();
+        try
+        {
+            client.getOutputStream().write( sent.getBytes( "US-ASCII" ) );
+            client.shutdownOutput();
+            return ShardPool.authenticate( accepted, "0123456789abcdef" );
+        } finally
+        {
+            accepted.close();
+            client.close();
+        }
+    }
+
+    public static class Stager implements ReactorStager
+    {
+
+        public StagedExamReactor stage( String recipe )
+        {
+            s_calls.add( "stage " + recipe );
+            return new StagedExamReactor()
+            {
+                public void invoke( TestAddress address )
+                    throws Exception
+                {
+                    s_calls.add( address.signature() + " " + address.getInstruction() );
+                    if( "FAIL".equals( address.signature() ) )
+                    {
+                        throw new Exception( "failed" );
+                    }
+                }
+
+                public void tearDown()
+                {
+                    s_calls.add( "tearDown" );
+                }
+            };
+        }
+    }
+
+    private static class NotSerializable extends RuntimeException
+    {
+
+        private final Object m_state = new Object();
+    }
+}
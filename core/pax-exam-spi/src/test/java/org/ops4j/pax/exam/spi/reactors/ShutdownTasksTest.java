@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class ShutdownTasksTest
+{
+
+    @Test
+    public void cleansUpAfterStopping()
+    {
+        final List<String> done = new ArrayList<String>();
+        ShutdownTasks.onCleanup( new Runnable()
+        {
+            public void run()
+            {
+                done.add( "cleanup" );
+            }
+        }
+        );
+        ShutdownTasks.onStop( new Runnable()
+        {
+            public void run()
+            {
+                throw new IllegalStateException( "does not stop" );
+            }
+        }
+        );
+        ShutdownTasks.onStop( new Runnable()
+        {
+            public void run()
+            {
+                done.add( "stop" );
+            }
+        }
+        );
+        ShutdownTasks.runAll();
+        assertEquals( "[stop, cleanup]", done.toString() );
+    }
+}
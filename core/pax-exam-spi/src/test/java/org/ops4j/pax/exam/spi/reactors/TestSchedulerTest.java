@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.reactors;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.ops4j.pax.exam.spi.TestAddress;
+import org.ops4j.pax.exam.spi.container.ClassMethodTestAddress;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class TestSchedulerTest
+{
+
+    @Test
+    public void unknownTestsComeFirst()
+        throws IOException
+    {
+        DurationHistory history = history( 1, 9 );
+        List<TestAddress> tests = tests( 3 );
+        List<TestAddress> sorted = new ArrayList<TestAddress>( tests );
+        Collections.sort( sorted, new TestScheduler( history ).longestFirst() );
+        assertEquals( tests.get( 2 ), sorted.get( 0 ) );
+        assertEquals( tests.get( 1 ), sorted.get( 1 ) );
+        assertEquals( tests.get( 0 ), sorted.get( 2 ) );
+    }
+
+    @Test
+    public void historyKeepsLongestOfRunAndSmoothes()
+        throws IOException
+    {
+        File file = File.createTempFile( "durations", ".properties" );
+        file.delete();
+        try
+        {
+            DurationHistory first = new DurationHistory( file );
+            first.record( "SIG", 100 );
+            first.record( "SIG", 300 );
+            first.store();
+            assertEquals( 300, new DurationHistory( file ).get( "SIG" ) );
+
+            DurationHistory second = new DurationHistory( file );
+            second.record( "SIG", 100 );
+            second.store();
+            assertEquals( 200, new DurationHistory( file ).get( "SIG" ) );
+            assertEquals( -1, second.get( "OTHER" ) );
+        } finally
+        {
+            file.delete();
+            new File( file.getPath() + ".lock" ).delete();
+        }
+    }
+
+    private DurationHistory history( long... millis )
+        throws IOException
+    {
+        File file = File.createTempFile( "durations", ".properties" );
+        file.delete();
+        DurationHistory history = new DurationHistory( file );
+        for( int i = 0; i < millis.length; i++ )
+        {
+            history.record( "SIG" + i, millis[ i ] );
+        }
+        history.store();
+        file.deleteOnExit();
+        new File( file.getPath() + ".lock" ).deleteOnExit();
+        return new DurationHistory( file );
+    }
+
+    private List<TestAddress> tests( int count )
+    {
+        List<TestAddress> tests = new ArrayList<TestAddress>();
+        for( int i = 0; i < count; i++ )
+        {
+            tests.add( new ClassMethodTestAddress( "SIG" + i, TestSchedulerTest.class, "test" + i ) );
+        }
+        return tests;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 agent.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit;
+
+import org.ops4j.pax.exam.spi.ReactorStager;
+import org.ops4j.pax.exam.spi.StagedExamReactor;
+
+/**
+ * Stages the reactor of a test class inside a worker process, exactly like {@link JUnit4TestRunner} does in a single
+ * JVM. Test signatures are derived from test class and method, so they match those of the driver.
+ *
+ * @author agent
+ * @since Oct 18, 2026
+ */
+public class JUnit4ReactorStager implements ReactorStager
+{
+
+    /**
+     * @param testClass name of the test class.
+     */
+    public StagedExamReactor stage( String testClass )
+        throws Exception
+    {
+        Class<?> klass = Class.forName( testClass, true, Thread.currentThread().getContextClassLoader() );
+        return new JUnit4TestRunner( klass ).getStagedReactor();
+    }
+}
@@ -19,18 +19,29 @@ package org.ops4j.pax.exam.junit;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.internal.runners.model.ReflectiveCallable;
 import org.junit.internal.runners.statements.Fail;
 import org.junit.rules.MethodRule;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runner.notification.StoppedByUserException;
 import org.junit.runners.BlockJUnit4ClassRunner;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.RunnerScheduler;
 import org.junit.runners.model.Statement;
 import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.spi.ExxamReactor;
@@ -40,6 +51,11 @@ import org.ops4j.pax.exam.spi.TestProbeBuilder;
 import org.ops4j.pax.exam.spi.container.DefaultRaw;
 import org.ops4j.pax.exam.spi.container.PaxExamRuntime;
 import org.ops4j.pax.exam.spi.driversupport.DefaultExamReactor;
+import org.ops4j.pax.exam.spi.reactors.BoundedExecutor;
+import org.ops4j.pax.exam.spi.reactors.DurationHistory;
+import org.ops4j.pax.exam.spi.reactors.ShardPool;
+import org.ops4j.pax.exam.spi.reactors.ShardedStagedReactor;
+import org.ops4j.pax.exam.spi.reactors.TestScheduler;
 
 import static org.ops4j.pax.exam.spi.container.DefaultRaw.createProbe;
 
@@ -69,9 +85,27 @@ public class JUnit4TestRunner extends BlockJUnit4ClassRunner
     private StagedExamReactor prepareReactor()
         throws Exception
     {
-        ExxamReactor reactor = getReactor();
         Class testClass = getTestClass().getJavaClass();
 
+        // add the tests to run:
+        TestProbeBuilder probe = createProbe();
+        probe.setAnchor( testClass );
+        for( FrameworkMethod s : getChildren() )
+        {
+            LOG.debug( "Add Test " + s.getName() );
+            TestAddress call = save( s, DefaultRaw.call( testClass, s.getName() ) );
+            probe.addTest( call );
+        }
+
+        if( ShardPool.isEnabled() )
+        {
+            // worker processes stage their own reactors, run tests in parallel to keep them busy
+            ShardedStagedReactor sharded = new ShardedStagedReactor( JUnit4ReactorStager.class.getName(), testClass.getName() );
+            setScheduler( new ConcurrentScheduler( ShardPool.getInstance().size() ) );
+            return sharded;
+        }
+
+        ExxamReactor reactor = getReactor();
         Object testClassInstance = testClass.newInstance();
         Method[] methods = testClass.getDeclaredMethods();
         for( Method m : methods )
@@ -86,25 +120,67 @@ public class JUnit4TestRunner extends BlockJUnit4ClassRunner
             }
         }
 
-        // add the tests to run as well:
-        TestProbeBuilder probe = createProbe();
-        probe.setAnchor( testClass );
-        for( FrameworkMethod s : getChildren() )
-        {
-            LOG.debug( "Add Test " + s.getName() );
-            TestAddress call = save( s, DefaultRaw.call( testClass, s.getName() ) );
-            probe.addTest( call );
-        }
         reactor.addProbe( probe );
         // finally stage it
         return reactor.stage();
     }
 
+    StagedExamReactor getStagedReactor()
+    {
+        return m_reactor;
+    }
+
     private DefaultExamReactor getReactor()
     {
         return new DefaultExamReactor( PaxExamRuntime.getTestContainerFactory() );
     }
 
+    /**
+     * With a {@link DurationHistory} configured, tests that took longest in earlier runs come first.
+     */
+    @Override
+    protected List<FrameworkMethod> computeTestMethods()
+    {
+        List<FrameworkMethod> methods = super.computeTestMethods();
+        DurationHistory history = DurationHistory.getInstance();
+        if( !history.isEnabled() )
+        {
+            return methods;
+        }
+        TestScheduler scheduler = new TestScheduler( history );
+        Class<?> testClass = getTestClass().getJavaClass();
+        // signatures cost reflection and a digest each, so look every expectation up only once
+        final Map<FrameworkMethod, Long> expected = new HashMap<FrameworkMethod, Long>();
+        for( FrameworkMethod method : methods )
+        {
+            expected.put( method, scheduler.expected( DefaultRaw.call( testClass, method.getName() ) ) );
+        }
+        List<FrameworkMethod> sorted = new ArrayList<FrameworkMethod>( methods );
+        Collections.sort( sorted, new Comparator<FrameworkMethod>()
+        {
+            public int compare( FrameworkMethod a, FrameworkMethod b )
+            {
+                return expected.get( b ).compareTo( expected.get( a ) );
+            }
+        }
+        );
+        return sorted;
+    }
+
+    @Override
+    public void run( RunNotifier notifier )
+    {
+        try
+        {
+            // children of a sharded run report from several threads
+            super.run( ShardPool.isEnabled() ? new SynchronizedRunNotifier( notifier ) : notifier );
+        } finally
+        {
+            // stops the containers of this class (or returns them to the pool)
+            m_reactor.tearDown();
+        }
+    }
+
     private TestAddress save( FrameworkMethod fwMethod, TestAddress call )
     {
         m_map.put( fwMethod, call );
@@ -173,4 +249,131 @@ public class JUnit4TestRunner extends BlockJUnit4ClassRunner
         return statement;
     }
 
+    /**
+     * Serializes notifications, listeners like those of IDEs and build tools are not thread safe.
+     */
+    private static class SynchronizedRunNotifier extends RunNotifier
+    {
+
+        private final RunNotifier m_delegate;
+
+        private SynchronizedRunNotifier( RunNotifier delegate )
+        {
+            m_delegate = delegate;
+        }
+
+        @Override
+        public synchronized void addListener( RunListener listener )
+        {
+            m_delegate.addListener( listener );
+        }
+
+        @Override
+        public synchronized void addFirstListener( RunListener listener )
+        {
+            m_delegate.addFirstListener( listener );
+        }
+
+        @Override
+        public synchronized void removeListener( RunListener listener )
+        {
+            m_delegate.removeListener( listener );
+        }
+
+        @Override
+        public synchronized void fireTestRunStarted( Description description )
+        {
+            m_delegate.fireTestRunStarted( description );
+        }
+
+        @Override
+        public synchronized void fireTestRunFinished( Result result )
+        {
+            m_delegate.fireTestRunFinished( result );
+        }
+
+        @Override
+        public synchronized void fireTestStarted( Description description )
+            throws StoppedByUserException
+        {
+            m_delegate.fireTestStarted( description );
+        }
+
+        @Override
+        public synchronized void fireTestFailure( Failure failure )
+        {
+            m_delegate.fireTestFailure( failure );
+        }
+
+        @Override
+        public synchronized void fireTestAssumptionFailed( Failure failure )
+        {
+            m_delegate.fireTestAssumptionFailed( failure );
+        }
+
+        @Override
+        public synchronized void fireTestIgnored( Description description )
+        {
+            m_delegate.fireTestIgnored( description );
+        }
+
+        @Override
+        public synchronized void fireTestFinished( Description description )
+        {
+            m_delegate.fireTestFinished( description );
+        }
+
+        @Override
+        public synchronized void pleaseStop()
+        {
+            m_delegate.pleaseStop();
+        }
+    }
+
+    /**
+     * Runs children on a number of threads and waits for all of them when finished.
+     */
+    private static class ConcurrentScheduler implements RunnerScheduler
+    {
+
+        private final BoundedExecutor m_executor;
+        private final List<Future<Object>> m_running = new ArrayList<Future<Object>>();
+
+        private ConcurrentScheduler( int threads )
+        {
+            m_executor = BoundedExecutor.background( threads, "pax-exam-junit" );
+        }
+
+        public void schedule( final Runnable childStatement )
+        {
+            m_running.add( m_executor.submit( new Callable<Object>()
+            {
+                public Object call()
+                {
+                    childStatement.run();
+                    return null;
+                }
+            }
+            )
+            );
+        }
+
+        public void finished()
+        {
+            try
+            {
+                for( Future<Object> f : m_running )
+                {
+                    f.get();
+                }
+            } catch( Exception e )
+            {
+                // children report their own failures to the notifier
+                LOG.warn( "Parallel test execution failed: " + e );
+            } finally
+            {
+                m_executor.shutdown();
+            }
+        }
+    }
 }